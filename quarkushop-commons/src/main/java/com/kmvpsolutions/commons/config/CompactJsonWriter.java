@@ -0,0 +1,244 @@
+package com.kmvpsolutions.commons.config;
+
+import org.eclipse.yasson.YassonJsonb;
+
+import javax.json.Json;
+import javax.json.JsonValue;
+import javax.json.bind.JsonbBuilder;
+import javax.json.bind.JsonbConfig;
+import javax.json.stream.JsonGenerator;
+import javax.json.stream.JsonGeneratorFactory;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.ext.MessageBodyWriter;
+import javax.ws.rs.ext.Provider;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Collection;
+
+// compact JSON representation, selected with "Accept: application/vnd.quarkushop.compact+json",
+// leaving out null values and empty collections
+@Provider
+@Produces(CompactJsonWriter.MEDIA_TYPE)
+public class CompactJsonWriter implements MessageBodyWriter<Object> {
+
+    public static final String MEDIA_TYPE = "application/vnd.quarkushop.compact+json";
+
+    private static final String DTO_PACKAGE = "com.kmvpsolutions.commons.dto";
+
+    private static final YassonJsonb JSONB = (YassonJsonb) JsonbBuilder.create(new JsonbConfig().withNullValues(false));
+
+    private static final JsonGeneratorFactory GENERATORS = Json.createGeneratorFactory(null);
+
+    // scalars such as counts and flags keep their default representation
+    @Override
+    public boolean isWriteable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+        return Collection.class.isAssignableFrom(type) || DTO_PACKAGE.equals(type.getPackageName());
+    }
+
+    @Override
+    public void writeTo(Object entity, Class<?> type, Type genericType, Annotation[] annotations,
+                        MediaType mediaType, MultivaluedMap<String, Object> httpHeaders, OutputStream entityStream) {
+        // the container owns the response stream, the generator is flushed but never closed
+        JsonGenerator generator = new EmptyArraySkippingGenerator(GENERATORS.createGenerator(entityStream));
+
+        JSONB.toJson(entity, genericType != null ? genericType : type, generator);
+        generator.flush();
+    }
+
+    // holds back a named array until its first element, so an empty one is never written
+    private static final class EmptyArraySkippingGenerator implements JsonGenerator {
+        private final JsonGenerator delegate;
+
+        private String pendingName;
+        private boolean pendingArray;
+
+        private EmptyArraySkippingGenerator(JsonGenerator delegate) {
+            this.delegate = delegate;
+        }
+
+        private JsonGenerator release() {
+            if (this.pendingName != null) {
+                if (this.pendingArray) {
+                    this.delegate.writeStartArray(this.pendingName);
+                } else {
+                    this.delegate.writeKey(this.pendingName);
+                }
+                this.pendingName = null;
+                this.pendingArray = false;
+            }
+            return this.delegate;
+        }
+
+        @Override
+        public JsonGenerator writeKey(String name) {
+            this.release();
+            this.pendingName = name;
+            return this;
+        }
+
+        @Override
+        public JsonGenerator writeStartArray(String name) {
+            this.release();
+            this.pendingName = name;
+            this.pendingArray = true;
+            return this;
+        }
+
+        @Override
+        public JsonGenerator writeStartArray() {
+            if (this.pendingName != null && !this.pendingArray) {
+                this.pendingArray = true;
+                return this;
+            }
+            this.release().writeStartArray();
+            return this;
+        }
+
+        @Override
+        public JsonGenerator writeEnd() {
+            if (this.pendingArray) {
+                this.pendingName = null;
+                this.pendingArray = false;
+                return this;
+            }
+            this.release().writeEnd();
+            return this;
+        }
+
+        @Override
+        public JsonGenerator writeStartObject() {
+            this.release().writeStartObject();
+            return this;
+        }
+
+        @Override
+        public JsonGenerator writeStartObject(String name) {
+            this.release().writeStartObject(name);
+            return this;
+        }
+
+        @Override
+        public JsonGenerator write(String name, JsonValue value) {
+            this.release().write(name, value);
+            return this;
+        }
+
+        @Override
+        public JsonGenerator write(String name, String value) {
+            this.release().write(name, value);
+            return this;
+        }
+
+        @Override
+        public JsonGenerator write(String name, BigInteger value) {
+            this.release().write(name, value);
+            return this;
+        }
+
+        @Override
+        public JsonGenerator write(String name, BigDecimal value) {
+            this.release().write(name, value);
+            return this;
+        }
+
+        @Override
+        public JsonGenerator write(String name, int value) {
+            this.release().write(name, value);
+            return this;
+        }
+
+        @Override
+        public JsonGenerator write(String name, long value) {
+            this.release().write(name, value);
+            return this;
+        }
+
+        @Override
+        public JsonGenerator write(String name, double value) {
+            this.release().write(name, value);
+            return this;
+        }
+
+        @Override
+        public JsonGenerator write(String name, boolean value) {
+            this.release().write(name, value);
+            return this;
+        }
+
+        @Override
+        public JsonGenerator writeNull(String name) {
+            this.release().writeNull(name);
+            return this;
+        }
+
+        @Override
+        public JsonGenerator write(JsonValue value) {
+            this.release().write(value);
+            return this;
+        }
+
+        @Override
+        public JsonGenerator write(String value) {
+            this.release().write(value);
+            return this;
+        }
+
+        @Override
+        public JsonGenerator write(BigDecimal value) {
+            this.release().write(value);
+            return this;
+        }
+
+        @Override
+        public JsonGenerator write(BigInteger value) {
+            this.release().write(value);
+            return this;
+        }
+
+        @Override
+        public JsonGenerator write(int value) {
+            this.release().write(value);
+            return this;
+        }
+
+        @Override
+        public JsonGenerator write(long value) {
+            this.release().write(value);
+            return this;
+        }
+
+        @Override
+        public JsonGenerator write(double value) {
+            this.release().write(value);
+            return this;
+        }
+
+        @Override
+        public JsonGenerator write(boolean value) {
+            this.release().write(value);
+            return this;
+        }
+
+        @Override
+        public JsonGenerator writeNull() {
+            this.release().writeNull();
+            return this;
+        }
+
+        @Override
+        public void close() {
+            this.release();
+            this.delegate.close();
+        }
+
+        @Override
+        public void flush() {
+            this.delegate.flush();
+        }
+    }
+}
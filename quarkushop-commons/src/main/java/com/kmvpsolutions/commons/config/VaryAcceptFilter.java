@@ -0,0 +1,44 @@
+package com.kmvpsolutions.commons.config;
+
+import javax.ws.rs.Produces;
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerResponseContext;
+import javax.ws.rs.container.ContainerResponseFilter;
+import javax.ws.rs.container.ResourceInfo;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.ext.Provider;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+
+// JSON, compact JSON and CBOR share the same ETag and Last-Modified,
+// so a shared cache must key the responses on the Accept header as well
+@Provider
+public class VaryAcceptFilter implements ContainerResponseFilter {
+
+    @Context
+    ResourceInfo resourceInfo;
+
+    @Override
+    public void filter(ContainerRequestContext requestContext, ContainerResponseContext responseContext) {
+        Method method = this.resourceInfo.getResourceMethod();
+
+        if (method == null) {
+            return;
+        }
+
+        Produces produces = method.isAnnotationPresent(Produces.class)
+                ? method.getAnnotation(Produces.class)
+                : method.getDeclaringClass().getAnnotation(Produces.class);
+
+        if (produces != null && mediaTypesCount(produces) > 1) {
+            responseContext.getHeaders().add(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        }
+    }
+
+    private static long mediaTypesCount(Produces produces) {
+        return Arrays.stream(produces.value())
+                .flatMap(value -> Arrays.stream(value.split(",")))
+                .count();
+    }
+}
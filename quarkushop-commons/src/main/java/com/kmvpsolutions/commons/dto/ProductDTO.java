@@ -19,4 +19,6 @@ public class ProductDTO {
     private Integer salesCounter;
     private Set<ReviewDTO> reviews;
     private Long categoryId;
+    private Long reviewCount;
+    private Double averageRating;
 }
@@ -0,0 +1,18 @@
+package com.kmvpsolutions.commons.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductLiteDTO {
+    private Long id;
+    private String name;
+    private BigDecimal price;
+    private String status;
+    private Long categoryId;
+}
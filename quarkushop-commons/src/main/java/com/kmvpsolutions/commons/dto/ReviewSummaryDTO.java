@@ -0,0 +1,14 @@
+package com.kmvpsolutions.commons.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReviewSummaryDTO {
+    private Long productId;
+    private Long reviewCount;
+    private Double averageRating;
+}
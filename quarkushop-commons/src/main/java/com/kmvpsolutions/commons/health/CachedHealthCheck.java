@@ -0,0 +1,62 @@
+package com.kmvpsolutions.commons.health;
+
+import org.eclipse.microprofile.health.HealthCheck;
+import org.eclipse.microprofile.health.HealthCheckResponse;
+import org.eclipse.microprofile.health.HealthCheckResponseBuilder;
+import org.eclipse.microprofile.metrics.Timer;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.context.Initialized;
+import javax.enterprise.event.Observes;
+import javax.inject.Inject;
+
+// probes a dependency on the shared background scheduler, health requests only read the last result
+public abstract class CachedHealthCheck implements HealthCheck {
+
+    @Inject
+    HealthProbes healthProbes;
+
+    private volatile HealthCheckResponse lastResponse;
+
+    protected abstract String name();
+
+    // throws an IllegalStateException when the dependency is down
+    protected abstract void probe();
+
+    void onStart(@Observes @Initialized(ApplicationScoped.class) Object init) {
+        this.lastResponse = HealthCheckResponse.named(this.name())
+                .down()
+                .withData("error", "Not probed yet")
+                .build();
+
+        Timer latency = this.healthProbes.latency(this.name());
+
+        this.healthProbes.schedule(this.name(), () -> latency.time(this::runProbe));
+    }
+
+    @Override
+    public HealthCheckResponse call() {
+        HealthCheckResponse response = this.lastResponse;
+
+        return response != null
+                ? response
+                : HealthCheckResponse.named(this.name()).down().withData("error", "Not probed yet").build();
+    }
+
+    protected HealthProbes healthProbes() {
+        return this.healthProbes;
+    }
+
+    private void runProbe() {
+        HealthCheckResponseBuilder responseBuilder = HealthCheckResponse.named(this.name());
+
+        try {
+            this.probe();
+            responseBuilder.up();
+        } catch (RuntimeException e) {
+            responseBuilder.down().withData("error", String.valueOf(e.getMessage()));
+        }
+
+        this.lastResponse = responseBuilder.build();
+    }
+}
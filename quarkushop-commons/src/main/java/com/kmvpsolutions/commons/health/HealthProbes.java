@@ -0,0 +1,98 @@
+package com.kmvpsolutions.commons.health;
+
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.metrics.Metadata;
+import org.eclipse.microprofile.metrics.MetricRegistry;
+import org.eclipse.microprofile.metrics.MetricType;
+import org.eclipse.microprofile.metrics.MetricUnits;
+import org.eclipse.microprofile.metrics.Tag;
+import org.eclipse.microprofile.metrics.Timer;
+
+import javax.annotation.PreDestroy;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// scheduler and HTTP client shared by every CachedHealthCheck
+@Slf4j
+@ApplicationScoped
+public class HealthProbes {
+
+    @Inject
+    MetricRegistry metricRegistry;
+
+    @ConfigProperty(name = "health.probe-interval", defaultValue = "PT10S")
+    Duration probeInterval;
+
+    @ConfigProperty(name = "health.probe-timeout", defaultValue = "PT3S")
+    Duration probeTimeout;
+
+    private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(2, runnable -> {
+        Thread thread = new Thread(runnable, "health-probes");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private HttpClient httpClient;
+
+    public void schedule(String name, Runnable probe) {
+        log.debug("Probing {} every {}", name, this.probeInterval);
+
+        this.scheduler.scheduleWithFixedDelay(probe, 0, this.probeInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public Timer latency(String name) {
+        return this.metricRegistry.timer(Metadata.builder()
+                        .withName("healthProbeLatency")
+                        .withDescription("How long the health probes of the dependencies take")
+                        .withType(MetricType.TIMER)
+                        .withUnit(MetricUnits.MILLISECONDS)
+                        .build(),
+                new Tag("check", name));
+    }
+
+    // throws an IllegalStateException unless the url answers 200
+    public void expectOk(String url, String error) {
+        HttpRequest request = HttpRequest.newBuilder()
+                .GET()
+                .uri(URI.create(url))
+                .timeout(this.probeTimeout)
+                .build();
+
+        HttpResponse<Void> response = null;
+
+        try {
+            response = this.httpClient().send(request, HttpResponse.BodyHandlers.discarding());
+        } catch (IOException e) {
+            log.error("IOException", e);
+        } catch (InterruptedException e) {
+            log.error("InterruptedException", e);
+            Thread.currentThread().interrupt();
+        }
+
+        if (response == null || response.statusCode() != 200) {
+            throw new IllegalStateException(error);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        this.scheduler.shutdownNow();
+    }
+
+    private synchronized HttpClient httpClient() {
+        if (this.httpClient == null) {
+            this.httpClient = HttpClient.newBuilder().connectTimeout(this.probeTimeout).build();
+        }
+        return this.httpClient;
+    }
+}
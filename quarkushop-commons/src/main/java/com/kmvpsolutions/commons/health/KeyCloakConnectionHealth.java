@@ -1,62 +1,30 @@
 package com.kmvpsolutions.commons.health;
 
-import lombok.extern.slf4j.Slf4j;
-import org.eclipse.microprofile.config.inject.ConfigProperty;
-import org.eclipse.microprofile.health.HealthCheck;
-import org.eclipse.microprofile.health.HealthCheckResponse;
-import org.eclipse.microprofile.health.HealthCheckResponseBuilder;
-import org.eclipse.microprofile.health.Liveness;
+import com.kmvpsolutions.commons.security.JwksCache;
+import org.eclipse.microprofile.health.Readiness;
 
 import javax.enterprise.context.ApplicationScoped;
-import javax.inject.Provider;
-import java.io.IOException;
-import java.net.URI;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
-import java.time.Duration;
+import javax.inject.Inject;
 
-@Liveness
-@Slf4j
+@Readiness
 @ApplicationScoped
-public class KeyCloakConnectionHealth implements HealthCheck {
-    @ConfigProperty(name = "mp.jwt.verify.publickey.location", defaultValue = "false")
-    Provider<String> keyCloakUrl;
+public class KeyCloakConnectionHealth extends CachedHealthCheck {
 
-    @Override
-    public HealthCheckResponse call() {
-        HealthCheckResponseBuilder responseBuilder = HealthCheckResponse
-                .named("Keycloak Connection health check");
-
-        try {
-            keyCloakConnectionVerification();
-            responseBuilder.up();
-        } catch (IllegalStateException ise) {
-            // cannot access keycloak
-            responseBuilder.down().withData("error", ise.getMessage());
-        }
+    @Inject
+    JwksCache jwksCache;
 
-        return responseBuilder.build();
+    @Override
+    protected String name() {
+        return "Keycloak Connection health check";
     }
 
-    private void keyCloakConnectionVerification() {
-        HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(3000)).build();
-
-        HttpRequest request = HttpRequest.newBuilder().GET().uri(URI.create(this.keyCloakUrl.get())).build();
-
-        HttpResponse<String> response = null;
-
-        try {
-            response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-        } catch (IOException e) {
-            log.error("IOException", e);
-        } catch (InterruptedException e) {
-            log.error("InterruptedException", e);
-        }
+    // answered from the cached keys, keycloak is only called once the refresh interval has elapsed
+    @Override
+    protected void probe() {
+        this.jwksCache.refreshIfDue();
 
-        if (response == null || response.statusCode() != 200) {
-            log.info("URL do keycloak: " + this.keyCloakUrl.get());
-            throw new IllegalStateException("Cannot contact Keycloak");
+        if (!this.jwksCache.isAvailable()) {
+            throw new IllegalStateException(String.valueOf(this.jwksCache.getLastError()));
         }
     }
 }
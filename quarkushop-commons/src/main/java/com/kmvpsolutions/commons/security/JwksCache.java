@@ -0,0 +1,119 @@
+package com.kmvpsolutions.commons.security;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Provider;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+// keeps track of the realm signing keys for the keycloak health check, which drives the refresh
+// from the shared probe scheduler; token verification relies on the JWKS cache of smallrye-jwt
+@Slf4j
+@ApplicationScoped
+public class JwksCache {
+
+    private static final ObjectReader JWKS_READER = new ObjectMapper().reader();
+
+    @ConfigProperty(name = "mp.jwt.verify.publickey.location", defaultValue = "false")
+    Provider<String> jwksUrl;
+
+    @ConfigProperty(name = "jwks.refresh-interval", defaultValue = "PT10M")
+    Duration refreshInterval;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(3))
+            .build();
+
+    private volatile Keys keys = new Keys(Collections.emptySet(), null, "Keys not loaded yet");
+
+    private long nextRefreshMillis;
+
+    // cheap until the refresh interval has elapsed, keycloak is then called once
+    public synchronized void refreshIfDue() {
+        long now = System.currentTimeMillis();
+
+        if (now < this.nextRefreshMillis) {
+            return;
+        }
+
+        this.refresh();
+
+        // a failed refresh is retried on the next call, the jitter keeps every instance from hitting keycloak at once
+        if (this.keys.error == null) {
+            long interval = this.refreshInterval.toMillis();
+            this.nextRefreshMillis = now + interval + ThreadLocalRandom.current().nextLong(-interval / 10, interval / 10 + 1);
+        }
+    }
+
+    public String getLastError() {
+        return this.keys.error;
+    }
+
+    // keys are considered stale once a few refreshes in a row have failed
+    public boolean isAvailable() {
+        Keys current = this.keys;
+
+        return !current.kids.isEmpty() && current.refreshedAt != null
+                && current.refreshedAt.plus(this.refreshInterval.multipliedBy(3)).isAfter(Instant.now());
+    }
+
+    private void refresh() {
+        try {
+            HttpRequest request = HttpRequest.newBuilder()
+                    .GET()
+                    .uri(URI.create(this.jwksUrl.get()))
+                    .timeout(Duration.ofSeconds(5))
+                    .build();
+
+            HttpResponse<String> response = this.httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+
+            if (response.statusCode() != 200) {
+                this.failed("Keycloak answered " + response.statusCode());
+                return;
+            }
+
+            Set<String> kids = new HashSet<>();
+
+            for (JsonNode key : JWKS_READER.readTree(response.body()).path("keys")) {
+                kids.add(key.path("kid").asText());
+            }
+
+            this.keys = new Keys(Collections.unmodifiableSet(kids), Instant.now(), null);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.warn("Cannot refresh the JWKS from {}", this.jwksUrl.get(), e);
+            this.failed("Cannot contact Keycloak");
+        }
+    }
+
+    private void failed(String error) {
+        Keys current = this.keys;
+        this.keys = new Keys(current.kids, current.refreshedAt, error);
+    }
+
+    private static final class Keys {
+        private final Set<String> kids;
+        private final Instant refreshedAt;
+        private final String error;
+
+        private Keys(Set<String> kids, Instant refreshedAt, String error) {
+            this.kids = kids;
+            this.refreshedAt = refreshedAt;
+            this.error = error;
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.kmvpsolutions.commons.security;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import io.quarkus.security.UnauthorizedException;
 import lombok.extern.slf4j.Slf4j;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
@@ -8,19 +10,42 @@ import org.eclipse.microprofile.metrics.MetricUnits;
 import org.eclipse.microprofile.metrics.annotation.Counted;
 import org.eclipse.microprofile.metrics.annotation.Timed;
 
-import javax.enterprise.context.RequestScoped;
+import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Provider;
-import java.io.EOFException;
 import java.io.IOException;
 import java.net.URI;
+import java.net.URLEncoder;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Slf4j
-@RequestScoped
+@ApplicationScoped
 public class TokenService {
 
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long INITIAL_BACKOFF_MILLIS = 100;
+    private static final int MAX_CACHED_TOKENS = 10_000;
+
+    // tokens are renewed this long before keycloak expires them
+    private static final long EXPIRY_MARGIN_MILLIS = 10_000;
+
+    // shared by every caller, the JDK client keeps its connections alive between requests
+    private static final HttpClient HTTP_CLIENT = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(3))
+            .build();
+
+    private static final ObjectReader TOKEN_READER = new ObjectMapper().reader();
+
+    private static final Map<String, CachedToken> TOKENS = new ConcurrentHashMap<>();
+
     @ConfigProperty(name = "mp.jwt.verify.issuer", defaultValue = "undefined")
     Provider<String> jwtIssuerUrlProvider;
 
@@ -45,41 +70,127 @@ public class TokenService {
         String keyCloakTokenEndpoint = jwtIssuerUrlProvider
                 .concat("/protocol/openid-connect/token");
 
-        String requestBody = "username=".concat(userName).concat("&password=").concat(password)
-                .concat("&grant_type=password").concat("&client_id=").concat(clientId);
+        // the credentials are part of the key, so a wrong password never gets a cached token
+        String cacheKey = cacheKey(keyCloakTokenEndpoint, clientId, userName, password, clientSecret);
+        long now = System.currentTimeMillis();
+
+        CachedToken cached = TOKENS.get(cacheKey);
+
+        if (cached != null && cached.accessTokenExpiresAt - EXPIRY_MARGIN_MILLIS > now) {
+            return cached.accessToken;
+        }
+
+        String clientCredentials = "&client_id=".concat(encode(clientId));
 
         if (clientSecret != null) {
-            requestBody = requestBody.concat("&client_secret=").concat(clientSecret);
+            clientCredentials = clientCredentials.concat("&client_secret=").concat(encode(clientSecret));
         }
 
-        HttpClient client = HttpClient.newBuilder().build();
+        HttpResponse<String> response = null;
 
-        int tentativas = 0;
+        if (cached != null && cached.refreshToken != null && cached.refreshTokenExpiresAt - EXPIRY_MARGIN_MILLIS > now) {
+            // a failed refresh falls back on the password grant below
+            try {
+                response = this.requestToken(keyCloakTokenEndpoint, "grant_type=refresh_token&refresh_token="
+                        .concat(encode(cached.refreshToken)).concat(clientCredentials));
+            } catch (IOException e) {
+                log.warn("Cannot refresh the access token at {}, requesting a new one", keyCloakTokenEndpoint, e);
+            }
+        }
+
+        if (response == null || response.statusCode() != 200) {
+            response = this.requestToken(keyCloakTokenEndpoint, "username=".concat(encode(userName))
+                    .concat("&password=").concat(encode(password))
+                    .concat("&grant_type=password").concat(clientCredentials));
+        }
+
+        if (response.statusCode() != 200) {
+            TOKENS.remove(cacheKey);
+            throw new UnauthorizedException();
+        }
+
+        CachedToken token = CachedToken.of(TOKEN_READER.readTree(response.body()), now);
+        this.cache(cacheKey, token, now);
+
+        return token.accessToken;
+    }
+
+    private HttpResponse<String> requestToken(String tokenEndpoint, String requestBody)
+            throws IOException, InterruptedException {
         HttpRequest httpRequest = HttpRequest.newBuilder()
-                .uri(URI.create(keyCloakTokenEndpoint))
+                .uri(URI.create(tokenEndpoint))
+                .timeout(Duration.ofSeconds(5))
                 .header("Content-Type", "application/x-www-form-urlencoded")
                 .POST(HttpRequest.BodyPublishers.ofString(requestBody))
                 .build();
-        HttpResponse<String> response = null;
 
-        while(tentativas < 3) {
+        long backoff = INITIAL_BACKOFF_MILLIS;
+
+        for (int attempt = 1; ; attempt++) {
             try {
-                 response = client.send(httpRequest, HttpResponse.BodyHandlers.ofString());
-                 break;
+                return HTTP_CLIENT.send(httpRequest, HttpResponse.BodyHandlers.ofString());
             } catch (IOException io) {
-                tentativas += 1;
-                System.out.println("Tentativa de conexão " + tentativas + ". Realizando uma nova.");
+                if (attempt == MAX_ATTEMPTS) {
+                    throw io;
+                }
+
+                log.warn("Connection attempt {} to {} failed, retrying in {} ms", attempt, tokenEndpoint, backoff);
+                Thread.sleep(backoff);
+                backoff *= 2;
             }
         }
+    }
 
-        String acessToken = null;
+    private void cache(String cacheKey, CachedToken token, long now) {
+        if (TOKENS.size() >= MAX_CACHED_TOKENS) {
+            TOKENS.values().removeIf(cached -> Math.max(cached.accessTokenExpiresAt, cached.refreshTokenExpiresAt) <= now);
+        }
 
-        if (response.statusCode() == 200) {
-            acessToken = new ObjectMapper().readTree(response.body()).get("access_token").textValue();
-        } else {
-            throw new UnauthorizedException();
+        if (TOKENS.size() < MAX_CACHED_TOKENS) {
+            TOKENS.put(cacheKey, token);
+        }
+    }
+
+    private static String cacheKey(String... parts) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+
+            for (String part : parts) {
+                digest.update(String.valueOf(part).getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+
+            return Base64.getEncoder().encodeToString(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private static final class CachedToken {
+        private final String accessToken;
+        private final long accessTokenExpiresAt;
+        private final String refreshToken;
+        private final long refreshTokenExpiresAt;
+
+        private CachedToken(String accessToken, long accessTokenExpiresAt,
+                            String refreshToken, long refreshTokenExpiresAt) {
+            this.accessToken = accessToken;
+            this.accessTokenExpiresAt = accessTokenExpiresAt;
+            this.refreshToken = refreshToken;
+            this.refreshTokenExpiresAt = refreshTokenExpiresAt;
         }
 
-        return acessToken;
+        private static CachedToken of(JsonNode body, long now) {
+            return new CachedToken(
+                    body.get("access_token").textValue(),
+                    now + body.path("expires_in").asLong() * 1000,
+                    body.path("refresh_token").textValue(),
+                    now + body.path("refresh_expires_in").asLong() * 1000
+            );
+        }
     }
 }
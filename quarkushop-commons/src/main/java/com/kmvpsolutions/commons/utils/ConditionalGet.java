@@ -0,0 +1,46 @@
+package com.kmvpsolutions.commons.utils;
+
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Request;
+import javax.ws.rs.core.Response;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.function.Supplier;
+
+public final class ConditionalGet {
+
+    private ConditionalGet() {
+    }
+
+    // answers 304 when the client copy is still current, otherwise builds and sends the entity
+    public static Response respond(Request request, HttpHeaders headers,
+                                   EntityVersion version, Supplier<?> entity) {
+        if (version == null) {
+            return Response.noContent().build();
+        }
+
+        EntityTag entityTag = new EntityTag(version.getTag(), true);
+        Date lastModified = version.getLastModified() != null
+                ? Date.from(version.getLastModified().truncatedTo(ChronoUnit.SECONDS))
+                : null;
+
+        // If-None-Match wins over If-Modified-Since, which only has a one second precision
+        Response.ResponseBuilder builder = lastModified == null
+                || headers.getHeaderString(HttpHeaders.IF_NONE_MATCH) != null
+                ? request.evaluatePreconditions(entityTag)
+                : request.evaluatePreconditions(lastModified, entityTag);
+
+        if (builder == null) {
+            builder = Response.ok(entity.get());
+        }
+
+        builder.tag(entityTag);
+
+        if (lastModified != null) {
+            builder.lastModified(lastModified);
+        }
+
+        return builder.build();
+    }
+}
@@ -0,0 +1,42 @@
+package com.kmvpsolutions.commons.utils;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Base64;
+
+@Data
+@AllArgsConstructor
+public class EntityVersion {
+    private String tag;
+    private Instant lastModified;
+
+    public static EntityVersion of(Long id, Instant lastModified) {
+        return new EntityVersion(id + "-" + lastModified.toEpochMilli(), lastModified);
+    }
+
+    // tag only, deleting a row never raises the latest modification date, so a Last-Modified would go stale
+    public static EntityVersion ofCollection(Long count, Instant lastModified) {
+        return new EntityVersion(count + "-" + (lastModified != null ? lastModified.toEpochMilli() : 0L), null);
+    }
+
+    // for representations without a single modification date, a digest of every value they depend on
+    public static EntityVersion ofDigest(Object... parts) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+
+            for (Object part : parts) {
+                digest.update(String.valueOf(part).getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+
+            return new EntityVersion(Base64.getUrlEncoder().withoutPadding().encodeToString(digest.digest()), null);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.kmvpsolutions.commons.utils;
+
+import org.eclipse.microprofile.metrics.Counter;
+import org.eclipse.microprofile.metrics.Gauge;
+import org.eclipse.microprofile.metrics.Metadata;
+import org.eclipse.microprofile.metrics.MetricRegistry;
+import org.eclipse.microprofile.metrics.MetricType;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+// concurrent calls for the same key while one is in flight share its result instead of calling again
+public class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    private final Counter calls;
+    private final Counter coalesced;
+
+    // a call joining one in flight never waits longer than this, even if the leading call hangs
+    private final long timeoutMillis;
+
+    public SingleFlight(MetricRegistry metricRegistry, String name, Duration timeout) {
+        this.timeoutMillis = timeout.toMillis();
+        this.calls = metricRegistry.counter(Metadata.builder()
+                .withName(name + "Calls")
+                .withDescription("How many " + name + " calls were requested")
+                .withType(MetricType.COUNTER)
+                .build());
+        this.coalesced = metricRegistry.counter(Metadata.builder()
+                .withName(name + "Coalesced")
+                .withDescription("How many " + name + " calls joined one already in flight")
+                .withType(MetricType.COUNTER)
+                .build());
+        metricRegistry.register(Metadata.builder()
+                        .withName(name + "CoalescingRatio")
+                        .withDescription("Share of the " + name + " calls that joined one already in flight")
+                        .withType(MetricType.GAUGE)
+                        .build(),
+                (Gauge<Double>) this::coalescingRatio);
+    }
+
+    public CompletionStage<V> execute(K key, Supplier<CompletionStage<V>> call) {
+        this.calls.inc();
+
+        CompletableFuture<V> leader = new CompletableFuture<>();
+        CompletableFuture<V> existing = this.inFlight.putIfAbsent(key, leader);
+
+        if (existing != null) {
+            this.coalesced.inc();
+            return existing.copy().orTimeout(this.timeoutMillis, TimeUnit.MILLISECONDS);
+        }
+
+        try {
+            call.get().whenComplete((value, error) -> this.complete(key, leader, value, error));
+        } catch (Throwable e) {
+            this.complete(key, leader, null, e);
+        }
+
+        return leader.copy();
+    }
+
+    public V executeSync(K key, Supplier<V> call) {
+        this.calls.inc();
+
+        CompletableFuture<V> leader = new CompletableFuture<>();
+        CompletableFuture<V> existing = this.inFlight.putIfAbsent(key, leader);
+
+        if (existing != null) {
+            this.coalesced.inc();
+
+            try {
+                return existing.get(this.timeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (ExecutionException e) {
+                throw e.getCause() instanceof RuntimeException
+                        ? (RuntimeException) e.getCause()
+                        : new CompletionException(e.getCause());
+            } catch (TimeoutException e) {
+                throw new CompletionException(e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CompletionException(e);
+            }
+        }
+
+        V value = null;
+        Throwable error = null;
+
+        try {
+            value = call.get();
+            return value;
+        } catch (Throwable e) {
+            error = e;
+            throw e;
+        } finally {
+            this.complete(key, leader, value, error);
+        }
+    }
+
+    public double coalescingRatio() {
+        long total = this.calls.getCount();
+        return total == 0 ? 0 : (double) this.coalesced.getCount() / total;
+    }
+
+    private void complete(K key, CompletableFuture<V> leader, V value, Throwable error) {
+        // removed before completing, so a call arriving afterwards starts a fresh request
+        this.inFlight.remove(key, leader);
+
+        if (error != null) {
+            leader.completeExceptionally(error);
+        } else {
+            leader.complete(value);
+        }
+    }
+}
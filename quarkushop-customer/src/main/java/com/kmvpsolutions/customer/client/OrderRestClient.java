@@ -1,26 +1,67 @@
 package com.kmvpsolutions.customer.client;
 
+import com.kmvpsolutions.commons.config.CborProvider;
 import com.kmvpsolutions.commons.dto.OrderDTO;
+import org.eclipse.microprofile.faulttolerance.Asynchronous;
+import org.eclipse.microprofile.faulttolerance.Bulkhead;
+import org.eclipse.microprofile.faulttolerance.CircuitBreaker;
+import org.eclipse.microprofile.faulttolerance.Timeout;
+import org.eclipse.microprofile.rest.client.annotation.RegisterProvider;
 import org.eclipse.microprofile.rest.client.inject.RegisterRestClient;
+import org.jboss.resteasy.plugins.providers.jsonb.JsonBindingProvider;
 
+import javax.ws.rs.Consumes;
 import javax.ws.rs.GET;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.MediaType;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletionStage;
 
+// every call is bounded in time and concurrency and trips its own circuit breaker,
+// the values can be overridden per environment through the MicroProfile Fault Tolerance config,
+// responses are negotiated (CBOR, else JSON) while request bodies stay in JSON that every version reads
 @Path("/orders")
 @RegisterRestClient
+@RegisterProvider(CborProvider.class)
+@RegisterProvider(JsonBindingProvider.class)
+@Produces({CborProvider.MEDIA_TYPE, CborProvider.JSON_FALLBACK})
+@Consumes(MediaType.APPLICATION_JSON)
+@Timeout(2000)
+@CircuitBreaker(requestVolumeThreshold = 20, failureRatio = 0.5, delay = 5000, successThreshold = 2)
+@Bulkhead(value = 50, waitingTaskQueue = 100)
 public interface OrderRestClient {
 
     @GET
     @Path("/{id}")
     Optional<OrderDTO> findById(@PathParam("id") Long id);
 
+    @GET
+    @Path("/{id}")
+    @Asynchronous
+    CompletionStage<OrderDTO> findByIdAsync(@PathParam("id") Long id);
+
     @GET
     @Path("/payment/{id}")
     Optional<OrderDTO> findByPaymentId(@PathParam("id") Long id);
 
+    @GET
+    @Path("/payments")
+    List<OrderDTO> findAllByPaymentIds(@QueryParam("ids") List<Long> ids);
+
+    @GET
+    @Path("/payments")
+    @Asynchronous
+    CompletionStage<List<OrderDTO>> findAllByPaymentIdsAsync(@QueryParam("ids") List<Long> ids);
+
     @POST
     OrderDTO save(OrderDTO orderDTO);
+
+    @POST
+    @Asynchronous
+    CompletionStage<OrderDTO> saveAsync(OrderDTO orderDTO);
 }
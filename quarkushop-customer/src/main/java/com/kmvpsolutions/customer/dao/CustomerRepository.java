@@ -2,12 +2,21 @@ package com.kmvpsolutions.customer.dao;
 
 import com.kmvpsolutions.customer.domain.Customer;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface CustomerRepository extends JpaRepository<Customer, Long> {
 
     List<Customer> findAllByEnabled(Boolean enabled);
+
+    @Query("select max(c.lastModifiedDate) from Customer c")
+    Instant findMaxLastModifiedDate();
+
+    @Query("select c.lastModifiedDate from Customer c where c.id = ?1")
+    Optional<Instant> findLastModifiedDateById(Long id);
 }
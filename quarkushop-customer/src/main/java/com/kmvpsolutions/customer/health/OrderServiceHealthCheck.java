@@ -1,62 +1,26 @@
 package com.kmvpsolutions.customer.health;
 
-import lombok.extern.slf4j.Slf4j;
+import com.kmvpsolutions.commons.health.CachedHealthCheck;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
-import org.eclipse.microprofile.health.HealthCheck;
-import org.eclipse.microprofile.health.HealthCheckResponse;
-import org.eclipse.microprofile.health.HealthCheckResponseBuilder;
-import org.eclipse.microprofile.health.Liveness;
+import org.eclipse.microprofile.health.Readiness;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Provider;
-import java.io.IOException;
-import java.net.URI;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
-import java.time.Duration;
 
-@Slf4j
-@Liveness
+@Readiness
 @ApplicationScoped
-public class OrderServiceHealthCheck implements HealthCheck {
+public class OrderServiceHealthCheck extends CachedHealthCheck {
 
     @ConfigProperty(name = "order-service.url", defaultValue = "false")
     Provider<String> orderServiceURL;
 
     @Override
-    public HealthCheckResponse call() {
-        HealthCheckResponseBuilder healthCheckResponseBuilder =
-                HealthCheckResponse.named("Order service Connection check!!");
-
-        try {
-            this.orderServiceConnectionVerification();
-            healthCheckResponseBuilder.up();
-        } catch (IllegalStateException ise) {
-            healthCheckResponseBuilder.down().withData("error", ise.getMessage());
-        }
-
-        return healthCheckResponseBuilder.build();
+    protected String name() {
+        return "Order service Connection check!!";
     }
 
-    private void orderServiceConnectionVerification() {
-        HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(3000)).build();
-
-        HttpRequest httpRequest = HttpRequest.newBuilder().GET().uri(URI.create(this.orderServiceURL.get() + "/health")).build();
-
-        HttpResponse<String> response = null;
-
-        try {
-            response = httpClient.send(httpRequest, HttpResponse.BodyHandlers.ofString());
-        } catch (IOException e) {
-            log.error("IOException", e);
-        } catch (InterruptedException e) {
-            log.error("InterruptedException", e);
-            Thread.currentThread().interrupt();
-        }
-
-        if (response == null || response.statusCode() != 200) {
-            throw new IllegalStateException("Cannot contact Order Service");
-        }
+    @Override
+    protected void probe() {
+        this.healthProbes().expectOk(this.orderServiceURL.get() + "/health", "Cannot contact Order Service");
     }
 }
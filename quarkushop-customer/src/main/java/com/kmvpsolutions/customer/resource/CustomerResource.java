@@ -1,13 +1,18 @@
 package com.kmvpsolutions.customer.resource;
 
 import com.kmvpsolutions.commons.dto.CustomerDTO;
+import com.kmvpsolutions.commons.utils.ConditionalGet;
 import com.kmvpsolutions.customer.service.CustomerService;
 import io.quarkus.security.Authenticated;
 import org.eclipse.microprofile.openapi.annotations.tags.Tag;
 
 import javax.inject.Inject;
 import javax.ws.rs.*;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Request;
+import javax.ws.rs.core.Response;
 import java.util.List;
 
 @Path("/customers")
@@ -20,14 +25,17 @@ public class CustomerResource {
     CustomerService customerService;
 
     @GET
-    public List<CustomerDTO> findAll() {
-        return this.customerService.findAll();
+    public Response findAll(@Context Request request, @Context HttpHeaders headers) {
+        return ConditionalGet.respond(request, headers,
+                this.customerService.findAllVersion(), this.customerService::findAll);
     }
 
     @GET
     @Path("/{id}")
-    public CustomerDTO findById(@PathParam("id") Long id) {
-        return this.customerService.findById(id);
+    public Response findById(@PathParam("id") Long id,
+                             @Context Request request, @Context HttpHeaders headers) {
+        return ConditionalGet.respond(request, headers,
+                this.customerService.findVersionById(id), () -> this.customerService.findById(id));
     }
 
     @GET
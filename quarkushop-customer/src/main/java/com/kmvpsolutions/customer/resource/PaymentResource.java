@@ -1,5 +1,6 @@
 package com.kmvpsolutions.customer.resource;
 
+import com.kmvpsolutions.commons.config.CompactJsonWriter;
 import com.kmvpsolutions.commons.dto.PaymentDTO;
 import com.kmvpsolutions.customer.service.PaymentService;
 import io.quarkus.security.Authenticated;
@@ -10,10 +11,11 @@ import javax.inject.Inject;
 import javax.ws.rs.*;
 import javax.ws.rs.core.MediaType;
 import java.util.List;
+import java.util.concurrent.CompletionStage;
 
 @Authenticated
 @Path("/payments")
-@Produces(MediaType.APPLICATION_JSON)
+@Produces({MediaType.APPLICATION_JSON, CompactJsonWriter.MEDIA_TYPE})
 @Tag(name = "Payment", description = "All payment methods")
 public class PaymentResource {
 
@@ -22,7 +24,7 @@ public class PaymentResource {
 
     @RolesAllowed("admin")
     @GET
-    public List<PaymentDTO> findAll() {
+    public CompletionStage<List<PaymentDTO>> findAll() {
         return this.paymentService.findAll();
     }
 
@@ -34,13 +36,13 @@ public class PaymentResource {
 
     @GET
     @Path("/price/{max}")
-    public List<PaymentDTO> findById(@PathParam("max") Double max) {
+    public CompletionStage<List<PaymentDTO>> findById(@PathParam("max") Double max) {
         return this.paymentService.findByPriceRange(max);
     }
 
     @POST
     @Consumes(MediaType.APPLICATION_JSON)
-    public PaymentDTO create(PaymentDTO paymentDTO) {
+    public CompletionStage<PaymentDTO> create(PaymentDTO paymentDTO) {
         return this.paymentService.create(paymentDTO);
     }
 
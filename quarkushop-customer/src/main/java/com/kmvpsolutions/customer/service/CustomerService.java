@@ -1,6 +1,7 @@
 package com.kmvpsolutions.customer.service;
 
 import com.kmvpsolutions.commons.dto.CustomerDTO;
+import com.kmvpsolutions.commons.utils.EntityVersion;
 import com.kmvpsolutions.customer.dao.CustomerRepository;
 import com.kmvpsolutions.customer.domain.Customer;
 import lombok.extern.slf4j.Slf4j;
@@ -28,6 +29,17 @@ public class CustomerService {
                 .collect(Collectors.toList());
     }
 
+    public EntityVersion findAllVersion() {
+        return EntityVersion.ofCollection(this.customerRepository.count(),
+                this.customerRepository.findMaxLastModifiedDate());
+    }
+
+    public EntityVersion findVersionById(Long id) {
+        return this.customerRepository.findLastModifiedDateById(id)
+                .map(lastModified -> EntityVersion.of(id, lastModified))
+                .orElse(null);
+    }
+
     public CustomerDTO findById(Long id) {
         log.debug("Request to get Customer {}", id);
 
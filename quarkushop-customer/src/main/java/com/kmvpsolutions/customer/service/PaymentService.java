@@ -2,18 +2,31 @@ package com.kmvpsolutions.customer.service;
 
 import com.kmvpsolutions.commons.dto.OrderDTO;
 import com.kmvpsolutions.commons.dto.PaymentDTO;
+import com.kmvpsolutions.commons.utils.SingleFlight;
 import com.kmvpsolutions.customer.client.OrderRestClient;
 import com.kmvpsolutions.customer.dao.PaymentRepository;
 import com.kmvpsolutions.customer.domain.Payment;
 import com.kmvpsolutions.customer.domain.enums.PaymentStatus;
 import lombok.extern.slf4j.Slf4j;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.context.ManagedExecutor;
+import org.eclipse.microprofile.metrics.MetricRegistry;
 import org.eclipse.microprofile.rest.client.inject.RestClient;
 
+import javax.annotation.PostConstruct;
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 import javax.transaction.Transactional;
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -28,60 +41,143 @@ public class PaymentService {
     @RestClient
     OrderRestClient orderRestClient;
 
-    public List<PaymentDTO> findAll() {
-        return this.paymentRepository.findAll()
-                .stream()
-                .map(payment -> findById(payment.getId()))
-                .collect(Collectors.toList());
+    @Inject
+    ManagedExecutor managedExecutor;
+
+    @Inject
+    MetricRegistry metricRegistry;
+
+    @ConfigProperty(name = "order-service.batch-size", defaultValue = "200")
+    int orderLookupBatchSize;
+
+    @ConfigProperty(name = "com.kmvpsolutions.customer.client.OrderRestClient/Timeout/value", defaultValue = "2000")
+    long orderClientTimeoutMillis;
+
+    private SingleFlight<Long, Optional<OrderDTO>> orderByPaymentLookups;
+
+    @PostConstruct
+    void init() {
+        this.orderByPaymentLookups = new SingleFlight<>(this.metricRegistry, "orderByPaymentLookups",
+                Duration.ofMillis(this.orderClientTimeoutMillis));
+    }
+
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
+    public CompletionStage<List<PaymentDTO>> findAll() {
+        log.debug("Request to get all payments");
+
+        return this.mapToDTOs(this.paymentRepository.findAll());
     }
 
     public PaymentDTO findById(Long id) {
         log.debug("Request to get payment by id {}", id);
 
-        OrderDTO order = this.orderRestClient.findByPaymentId(id).orElseThrow(() ->
-                new IllegalStateException("The order does not exist"));
+        // concurrent lookups of the same payment share a single call to the order service
+        OrderDTO order = this.orderByPaymentLookups
+                .executeSync(id, () -> this.orderRestClient.findByPaymentId(id))
+                .orElseThrow(() -> new IllegalStateException("The order does not exist"));
 
         return this.paymentRepository.findById(id)
                 .map(payment -> mapToDTO(payment, order.getId())).orElse(null);
     }
 
-    public List<PaymentDTO> findByPriceRange(Double max) {
-        return this.paymentRepository.findAllByAmountBetween(
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
+    public CompletionStage<List<PaymentDTO>> findByPriceRange(Double max) {
+        return this.mapToDTOs(this.paymentRepository.findAllByAmountBetween(
                 BigDecimal.ZERO,
-                BigDecimal.valueOf(max))
-            .stream()
-            .map(payment -> mapToDTO(payment,
-                    this.findOrderByPaymentId(payment.getId()).getId()))
-            .collect(Collectors.toList());
+                BigDecimal.valueOf(max)));
     }
 
-    public PaymentDTO create(PaymentDTO paymentDTO) {
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
+    public CompletionStage<PaymentDTO> create(PaymentDTO paymentDTO) {
         log.debug("Request to create payment {}", paymentDTO);
 
-        OrderDTO orderDTO = this.orderRestClient.findById(paymentDTO.getOrderId()).orElseThrow(() ->
-                new IllegalStateException("The order does not exist"));
-        orderDTO.setStatus("PAID");
+        return this.orderRestClient.findByIdAsync(paymentDTO.getOrderId())
+                .thenComposeAsync(orderDTO -> {
+                    if (orderDTO == null) {
+                        throw new IllegalStateException("The order does not exist");
+                    }
+                    orderDTO.setStatus("PAID");
+
+                    PaymentDTO payment = this.save(paymentDTO, orderDTO);
+
+                    return this.orderRestClient.saveAsync(orderDTO)
+                            .handleAsync((savedOrder, failure) -> {
+                                if (failure != null) {
+                                    // the order was not marked as paid, so the payment must not stay behind
+                                    this.compensate(payment, failure);
+                                }
+                                return payment;
+                            }, this.managedExecutor);
+                }, this.managedExecutor);
+    }
 
+    PaymentDTO save(PaymentDTO paymentDTO, OrderDTO orderDTO) {
         Payment paymentSaved = this.paymentRepository.saveAndFlush(new Payment(
                 paymentDTO.getPaypalPaymentId(),
                 PaymentStatus.valueOf(paymentDTO.getStatus()),
                 orderDTO.getTotalPrice()
         ));
 
-        this.orderRestClient.save(orderDTO);
-
         return mapToDTO(paymentSaved, orderDTO.getId());
     }
 
+    private void compensate(PaymentDTO payment, Throwable failure) {
+        log.warn("Cannot mark order {} as paid, deleting payment {}", payment.getOrderId(), payment.getId());
+
+        try {
+            this.delete(payment.getId());
+        } catch (RuntimeException e) {
+            failure.addSuppressed(e);
+        }
+
+        throw failure instanceof CompletionException
+                ? (CompletionException) failure
+                : new CompletionException(failure);
+    }
+
     public void delete(Long id) {
         log.debug("Request to delete payment {}", id);
 
         this.paymentRepository.deleteById(id);
     }
 
-    private OrderDTO findOrderByPaymentId(Long paymentId) {
-        return this.orderRestClient.findByPaymentId(paymentId).orElseThrow(() ->
-                new IllegalStateException("No order exists for payment id " + paymentId));
+    private CompletionStage<List<PaymentDTO>> mapToDTOs(List<Payment> payments) {
+        List<Long> paymentIds = payments.stream()
+                .map(Payment::getId)
+                .collect(Collectors.toList());
+
+        return this.findOrderIdsByPaymentIds(paymentIds).thenApply(orderIdsByPaymentId -> payments.stream()
+                .map(payment -> {
+                    Long orderId = orderIdsByPaymentId.get(payment.getId());
+
+                    if (orderId == null) {
+                        throw new IllegalStateException("No order exists for payment id " + payment.getId());
+                    }
+
+                    return mapToDTO(payment, orderId);
+                })
+                .collect(Collectors.toList()));
+    }
+
+    private CompletionStage<Map<Long, Long>> findOrderIdsByPaymentIds(List<Long> paymentIds) {
+        List<CompletableFuture<List<OrderDTO>>> chunks = new ArrayList<>();
+
+        // one call to the order service per chunk instead of one call per payment
+        for (int from = 0; from < paymentIds.size(); from += this.orderLookupBatchSize) {
+            List<Long> chunk = paymentIds.subList(from,
+                    Math.min(from + this.orderLookupBatchSize, paymentIds.size()));
+
+            chunks.add(this.orderRestClient.findAllByPaymentIdsAsync(chunk).toCompletableFuture());
+        }
+
+        return CompletableFuture.allOf(chunks.toArray(new CompletableFuture[0])).thenApply(done -> {
+            Map<Long, Long> orderIdsByPaymentId = new HashMap<>();
+
+            chunks.forEach(chunk -> chunk.join()
+                    .forEach(order -> orderIdsByPaymentId.put(order.getPaymentId(), order.getId())));
+
+            return orderIdsByPaymentId;
+        });
     }
 
     private static PaymentDTO mapToDTO(Payment payment, Long orderId) {
@@ -356,4 +356,23 @@ public class CustomerResourceTest {
                 .body("size()", is(initialInactiveCount + 1));
 
     }
+
+    @Test
+    void testFindByIdNotModifiedWithAdminRole() {
+        var etag = given().when()
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + ADMIN_BEARER_TOKEN)
+                .get("/customers/1")
+                .then()
+                .statusCode(OK.getStatusCode())
+                .header(HttpHeaders.LAST_MODIFIED, notNullValue())
+                .extract()
+                .header(HttpHeaders.ETAG);
+
+        given().when()
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + ADMIN_BEARER_TOKEN)
+                .header(HttpHeaders.IF_NONE_MATCH, etag)
+                .get("/customers/1")
+                .then()
+                .statusCode(NOT_MODIFIED.getStatusCode());
+    }
 }
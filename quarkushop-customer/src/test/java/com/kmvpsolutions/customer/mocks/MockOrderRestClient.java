@@ -7,7 +7,11 @@ import org.eclipse.microprofile.rest.client.inject.RestClient;
 
 import javax.enterprise.context.ApplicationScoped;
 import java.math.BigDecimal;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.stream.Collectors;
 
 @Mock
 @ApplicationScoped
@@ -23,6 +27,11 @@ public class MockOrderRestClient implements OrderRestClient {
         return Optional.of(order);
     }
 
+    @Override
+    public CompletionStage<OrderDTO> findByIdAsync(Long id) {
+        return CompletableFuture.completedFuture(this.findById(id).orElse(null));
+    }
+
     @Override
     public Optional<OrderDTO> findByPaymentId(Long id) {
         final OrderDTO order = new OrderDTO();
@@ -31,8 +40,29 @@ public class MockOrderRestClient implements OrderRestClient {
         return Optional.of(order);
     }
 
+    @Override
+    public List<OrderDTO> findAllByPaymentIds(List<Long> ids) {
+        return ids.stream().map(id -> {
+            final OrderDTO order = new OrderDTO();
+            order.setId(5l);
+            order.setPaymentId(id);
+
+            return order;
+        }).collect(Collectors.toList());
+    }
+
+    @Override
+    public CompletionStage<List<OrderDTO>> findAllByPaymentIdsAsync(List<Long> ids) {
+        return CompletableFuture.completedFuture(this.findAllByPaymentIds(ids));
+    }
+
     @Override
     public OrderDTO save(OrderDTO orderDTO) {
         return orderDTO;
     }
+
+    @Override
+    public CompletionStage<OrderDTO> saveAsync(OrderDTO orderDTO) {
+        return CompletableFuture.completedFuture(this.save(orderDTO));
+    }
 }
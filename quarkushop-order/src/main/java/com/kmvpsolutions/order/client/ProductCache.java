@@ -0,0 +1,242 @@
+package com.kmvpsolutions.order.client;
+
+import com.kmvpsolutions.commons.dto.ProductLiteDTO;
+import com.kmvpsolutions.commons.utils.SingleFlight;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.faulttolerance.exceptions.BulkheadException;
+import org.eclipse.microprofile.faulttolerance.exceptions.CircuitBreakerOpenException;
+import org.eclipse.microprofile.faulttolerance.exceptions.TimeoutException;
+import org.eclipse.microprofile.metrics.Counter;
+import org.eclipse.microprofile.metrics.Gauge;
+import org.eclipse.microprofile.metrics.Metadata;
+import org.eclipse.microprofile.metrics.MetricRegistry;
+import org.eclipse.microprofile.metrics.MetricType;
+import org.eclipse.microprofile.rest.client.inject.RestClient;
+
+import javax.annotation.PostConstruct;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+
+@Slf4j
+@ApplicationScoped
+public class ProductCache {
+
+    @Inject
+    @RestClient
+    ProductRestClient productRestClient;
+
+    @Inject
+    MetricRegistry metricRegistry;
+
+    @ConfigProperty(name = "product-cache.max-size", defaultValue = "1000")
+    int maxSize;
+
+    @ConfigProperty(name = "product-cache.ttl", defaultValue = "PT1M")
+    Duration ttl;
+
+    @ConfigProperty(name = "com.kmvpsolutions.order.client.ProductRestClient/Timeout/value", defaultValue = "2000")
+    long clientTimeoutMillis;
+
+    private Map<Long, CachedProduct> products;
+
+    private Counter hits;
+    private Counter misses;
+    private Counter evictions;
+    private Counter staleFallbacks;
+
+    private SingleFlight<Long, ProductLiteDTO> productLookups;
+
+    @PostConstruct
+    void init() {
+        // access-ordered map, the eldest entry is the least recently used one
+        this.products = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, CachedProduct> eldest) {
+                if (size() > maxSize) {
+                    evictions.inc();
+                    return true;
+                }
+                return false;
+            }
+        };
+
+        this.hits = this.counter("productCacheHits", "How many product lookups were served from the cache");
+        this.misses = this.counter("productCacheMisses", "How many product lookups had to call the product service");
+        this.evictions = this.counter("productCacheEvictions", "How many products were evicted from the cache");
+        this.staleFallbacks = this.counter("productCacheStaleFallbacks",
+                "How many expired products were served because the product service call was rejected");
+        this.productLookups = new SingleFlight<>(this.metricRegistry, "productLookups",
+                Duration.ofMillis(this.clientTimeoutMillis));
+        this.metricRegistry.register(Metadata.builder()
+                        .withName("productCacheSize")
+                        .withDescription("How many products are currently cached")
+                        .withType(MetricType.GAUGE)
+                        .build(),
+                (Gauge<Integer>) this::size);
+    }
+
+    public ProductLiteDTO findById(Long id) {
+        ProductLiteDTO product = this.getIfPresent(id);
+
+        if (product != null) {
+            this.hits.inc();
+            return product;
+        }
+
+        this.misses.inc();
+        log.debug("Product {} not cached, requesting it to the product service", id);
+
+        try {
+            product = this.productLookups.executeSync(id, () -> this.productRestClient.findById(id));
+        } catch (RuntimeException e) {
+            return this.staleOrRethrow(id, e);
+        }
+
+        if (product != null) {
+            this.put(product);
+        }
+
+        return product;
+    }
+
+    public CompletionStage<ProductLiteDTO> findByIdAsync(Long id) {
+        ProductLiteDTO product = this.getIfPresent(id);
+
+        if (product != null) {
+            this.hits.inc();
+            return CompletableFuture.completedFuture(product);
+        }
+
+        this.misses.inc();
+        log.debug("Product {} not cached, requesting it to the product service", id);
+
+        return this.productLookups.execute(id, () -> this.productRestClient.findByIdAsync(id)).handle((loaded, error) -> {
+            if (error != null) {
+                return this.staleOrRethrow(id, error);
+            }
+            if (loaded != null) {
+                this.put(loaded);
+            }
+            return loaded;
+        });
+    }
+
+    public CompletionStage<Map<Long, ProductLiteDTO>> findAllByIdsAsync(Collection<Long> ids) {
+        Map<Long, ProductLiteDTO> productsById = new HashMap<>();
+        List<Long> missingIds = new ArrayList<>();
+
+        ids.stream().distinct().forEach(id -> {
+            ProductLiteDTO product = this.getIfPresent(id);
+
+            if (product != null) {
+                this.hits.inc();
+                productsById.put(id, product);
+            } else {
+                this.misses.inc();
+                missingIds.add(id);
+            }
+        });
+
+        if (missingIds.isEmpty()) {
+            return CompletableFuture.completedFuture(productsById);
+        }
+
+        log.debug("Products {} not cached, requesting them to the product service", missingIds);
+
+        // a single call to the product service for every product not cached yet
+        return this.productRestClient.findAllByIdsAsync(missingIds).handle((loaded, error) -> {
+            if (error != null) {
+                missingIds.forEach(id -> productsById.put(id, this.staleOrRethrow(id, error)));
+                return productsById;
+            }
+            loaded.forEach(product -> {
+                this.put(product);
+                productsById.put(product.getId(), product);
+            });
+            return productsById;
+        });
+    }
+
+    public synchronized ProductLiteDTO getIfPresent(Long id) {
+        CachedProduct cached = this.products.get(id);
+
+        if (cached == null) {
+            return null;
+        }
+
+        // expired products are kept until replaced or evicted, as a fallback when the product service is unavailable
+        if (cached.isExpired()) {
+            return null;
+        }
+
+        return cached.product;
+    }
+
+    public synchronized ProductLiteDTO getStale(Long id) {
+        CachedProduct cached = this.products.get(id);
+        return cached != null ? cached.product : null;
+    }
+
+    public synchronized void put(ProductLiteDTO product) {
+        this.products.put(product.getId(), new CachedProduct(product, System.nanoTime() + this.ttl.toNanos()));
+    }
+
+    public synchronized int size() {
+        return this.products.size();
+    }
+
+    // the stale product is only served when the call was rejected by the timeout, bulkhead or circuit breaker,
+    // or when a coalesced lookup gave up waiting on the one in flight
+    private ProductLiteDTO staleOrRethrow(Long id, Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+
+        boolean rejected = cause instanceof TimeoutException
+                || cause instanceof java.util.concurrent.TimeoutException
+                || cause instanceof BulkheadException
+                || cause instanceof CircuitBreakerOpenException;
+
+        ProductLiteDTO stale = rejected ? this.getStale(id) : null;
+
+        if (stale == null) {
+            throw cause instanceof RuntimeException ? (RuntimeException) cause : new CompletionException(cause);
+        }
+
+        log.warn("Product service unavailable ({}), serving a stale product {}", cause.getClass().getSimpleName(), id);
+        this.staleFallbacks.inc();
+
+        return stale;
+    }
+
+    private Counter counter(String name, String description) {
+        return this.metricRegistry.counter(Metadata.builder()
+                .withName(name)
+                .withDescription(description)
+                .withType(MetricType.COUNTER)
+                .build());
+    }
+
+    private static final class CachedProduct {
+        private final ProductLiteDTO product;
+        private final long expiresAt;
+
+        private CachedProduct(ProductLiteDTO product, long expiresAt) {
+            this.product = product;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired() {
+            return System.nanoTime() - this.expiresAt > 0;
+        }
+    }
+}
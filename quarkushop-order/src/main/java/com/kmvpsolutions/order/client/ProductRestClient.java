@@ -1,17 +1,48 @@
 package com.kmvpsolutions.order.client;
 
-import com.kmvpsolutions.commons.dto.ProductDTO;
+import com.kmvpsolutions.commons.config.CborProvider;
+import com.kmvpsolutions.commons.dto.ProductLiteDTO;
+import org.eclipse.microprofile.faulttolerance.Asynchronous;
+import org.eclipse.microprofile.faulttolerance.Bulkhead;
+import org.eclipse.microprofile.faulttolerance.CircuitBreaker;
+import org.eclipse.microprofile.faulttolerance.Timeout;
+import org.eclipse.microprofile.rest.client.annotation.RegisterProvider;
 import org.eclipse.microprofile.rest.client.inject.RegisterRestClient;
+import org.jboss.resteasy.plugins.providers.jsonb.JsonBindingProvider;
 
 import javax.ws.rs.GET;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import java.util.List;
+import java.util.concurrent.CompletionStage;
 
+// every call is bounded in time and concurrency and trips its own circuit breaker,
+// the values can be overridden per environment through the MicroProfile Fault Tolerance config,
+// the ProductCache falls back on stale products when a call is rejected
 @Path("/products")
 @RegisterRestClient
+@RegisterProvider(CborProvider.class)
+@RegisterProvider(JsonBindingProvider.class)
+@Produces({CborProvider.MEDIA_TYPE, CborProvider.JSON_FALLBACK})
+@Timeout(2000)
+@CircuitBreaker(requestVolumeThreshold = 20, failureRatio = 0.5, delay = 5000, successThreshold = 2)
+@Bulkhead(value = 50, waitingTaskQueue = 100)
 public interface ProductRestClient {
 
     @GET
-    @Path("/{id}")
-    ProductDTO findById(@PathParam("id") Long id);
+    @Path("/{id}/lite")
+    ProductLiteDTO findById(@PathParam("id") Long id);
+
+    @GET
+    @Path("/{id}/lite")
+    @Asynchronous
+    CompletionStage<ProductLiteDTO> findByIdAsync(@PathParam("id") Long id);
+
+    @GET
+    @Path("/lite")
+    @Asynchronous
+    @Bulkhead(value = 20, waitingTaskQueue = 50)
+    CompletionStage<List<ProductLiteDTO>> findAllByIdsAsync(@QueryParam("ids") List<Long> ids);
 }
@@ -2,8 +2,13 @@ package com.kmvpsolutions.order.dao;
 
 import com.kmvpsolutions.order.domain.Order;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,4 +17,17 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
 
     List<Order> findByCartCustomerId(Long customerId);
     Optional<Order> findByPaymentId(Long id);
+
+    @Query("select distinct o from Order o left join fetch o.cart left join fetch o.orderItems where o.paymentId in ?1")
+    List<Order> findAllByPaymentIdIn(Collection<Long> ids);
+
+    @Modifying
+    @Query("update Order o set o.price = o.price + ?2, o.lastModifiedDate = current_timestamp where o.id = ?1")
+    int addToPrice(Long orderId, BigDecimal delta);
+
+    @Query("select max(o.lastModifiedDate) from Order o")
+    Instant findMaxLastModifiedDate();
+
+    @Query("select o.lastModifiedDate from Order o where o.id = ?1")
+    Optional<Instant> findLastModifiedDateById(Long id);
 }
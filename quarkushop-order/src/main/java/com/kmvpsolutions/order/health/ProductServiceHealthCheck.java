@@ -1,62 +1,26 @@
 package com.kmvpsolutions.order.health;
 
-import lombok.extern.slf4j.Slf4j;
+import com.kmvpsolutions.commons.health.CachedHealthCheck;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
-import org.eclipse.microprofile.health.HealthCheck;
-import org.eclipse.microprofile.health.HealthCheckResponse;
-import org.eclipse.microprofile.health.HealthCheckResponseBuilder;
-import org.eclipse.microprofile.health.Liveness;
+import org.eclipse.microprofile.health.Readiness;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Provider;
-import java.io.IOException;
-import java.net.URI;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
-import java.time.Duration;
 
-@Slf4j
-@Liveness
+@Readiness
 @ApplicationScoped
-public class ProductServiceHealthCheck implements HealthCheck {
+public class ProductServiceHealthCheck extends CachedHealthCheck {
 
     @ConfigProperty(name = "product-service.url", defaultValue = "false")
     Provider<String> productServiceURL;
 
     @Override
-    public HealthCheckResponse call() {
-        HealthCheckResponseBuilder healthCheckResponseBuilder =
-                HealthCheckResponse.named("Product service Connection check!!");
-
-        try {
-            this.productServiceConnectionVerification();
-            healthCheckResponseBuilder.up();
-        } catch (IllegalStateException ise) {
-            healthCheckResponseBuilder.down().withData("error", ise.getMessage());
-        }
-
-        return healthCheckResponseBuilder.build();
+    protected String name() {
+        return "Product service Connection check!!";
     }
 
-    private void productServiceConnectionVerification() {
-        HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(3000)).build();
-
-        HttpRequest httpRequest = HttpRequest.newBuilder().GET().uri(URI.create(this.productServiceURL.get() + "/health")).build();
-
-        HttpResponse<String> response = null;
-
-        try {
-            response = httpClient.send(httpRequest, HttpResponse.BodyHandlers.ofString());
-        } catch (IOException e) {
-            log.error("IOException", e);
-        } catch (InterruptedException e) {
-            log.error("InterruptedException", e);
-            Thread.currentThread().interrupt();
-        }
-
-        if (response == null || response.statusCode() != 200) {
-            throw new IllegalStateException("Cannot contact Product Service");
-        }
+    @Override
+    protected void probe() {
+        this.healthProbes().expectOk(this.productServiceURL.get() + "/health", "Cannot contact Product Service");
     }
 }
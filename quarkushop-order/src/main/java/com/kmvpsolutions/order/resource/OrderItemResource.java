@@ -9,6 +9,7 @@ import javax.inject.Inject;
 import javax.ws.rs.*;
 import javax.ws.rs.core.MediaType;
 import java.util.List;
+import java.util.concurrent.CompletionStage;
 
 @Path("/order-items")
 @Produces(MediaType.APPLICATION_JSON)
@@ -33,10 +34,18 @@ public class OrderItemResource {
 
     @POST
     @Consumes(MediaType.APPLICATION_JSON)
-    public OrderItemDTO create(OrderItemDTO orderItemDTO) {
+    public CompletionStage<OrderItemDTO> create(OrderItemDTO orderItemDTO) {
         return this.orderItemService.create(orderItemDTO);
     }
 
+    @POST
+    @Path("/order/{id}")
+    @Consumes(MediaType.APPLICATION_JSON)
+    public CompletionStage<List<OrderItemDTO>> createAll(@PathParam("id") Long orderId,
+                                                         List<OrderItemDTO> orderItemDTOs) {
+        return this.orderItemService.createAll(orderId, orderItemDTOs);
+    }
+
     @DELETE
     @Path("/{id}")
     public void delete(@PathParam("id") Long id) {
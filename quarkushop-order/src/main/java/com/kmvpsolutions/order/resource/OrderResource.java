@@ -1,6 +1,9 @@
 package com.kmvpsolutions.order.resource;
 
+import com.kmvpsolutions.commons.config.CborProvider;
+import com.kmvpsolutions.commons.config.CompactJsonWriter;
 import com.kmvpsolutions.commons.dto.OrderDTO;
+import com.kmvpsolutions.commons.utils.ConditionalGet;
 import com.kmvpsolutions.order.service.OrderService;
 import io.quarkus.security.Authenticated;
 import org.eclipse.microprofile.openapi.annotations.tags.Tag;
@@ -8,12 +11,16 @@ import org.eclipse.microprofile.openapi.annotations.tags.Tag;
 import javax.annotation.security.RolesAllowed;
 import javax.inject.Inject;
 import javax.ws.rs.*;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Request;
+import javax.ws.rs.core.Response;
 import java.util.List;
 
 @Authenticated
 @Path("/orders")
-@Produces(MediaType.APPLICATION_JSON)
+@Produces({MediaType.APPLICATION_JSON, CompactJsonWriter.MEDIA_TYPE, CborProvider.MEDIA_TYPE})
 @Tag(name = "Order", description = "All orders methods")
 public class OrderResource {
 
@@ -22,8 +29,9 @@ public class OrderResource {
 
     @RolesAllowed("admin")
     @GET
-    public List<OrderDTO> findAll() {
-        return this.orderService.findAll();
+    public Response findAll(@Context Request request, @Context HttpHeaders headers) {
+        return ConditionalGet.respond(request, headers,
+                this.orderService.findAllVersion(), this.orderService::findAll);
     }
 
     @GET
@@ -34,8 +42,16 @@ public class OrderResource {
 
     @GET
     @Path("/{id}")
-    public OrderDTO findById(@PathParam("id") Long id) {
-        return this.orderService.findById(id);
+    public Response findById(@PathParam("id") Long id,
+                             @Context Request request, @Context HttpHeaders headers) {
+        return ConditionalGet.respond(request, headers,
+                this.orderService.findVersionById(id), () -> this.orderService.findById(id));
+    }
+
+    @GET
+    @Path("/payments")
+    public List<OrderDTO> findAllByPaymentIds(@QueryParam("ids") List<Long> paymentIds) {
+        return this.orderService.findAllByPaymentIds(paymentIds);
     }
 
     @GET
@@ -45,7 +61,7 @@ public class OrderResource {
     }
 
     @POST
-    @Consumes(MediaType.APPLICATION_JSON)
+    @Consumes({MediaType.APPLICATION_JSON, CborProvider.MEDIA_TYPE})
     public OrderDTO create(OrderDTO orderDTO) {
         return this.orderService.create(orderDTO);
     }
@@ -1,17 +1,22 @@
 package com.kmvpsolutions.order.service;
 
 import com.kmvpsolutions.commons.dto.OrderItemDTO;
-import com.kmvpsolutions.order.client.ProductRestClient;
+import com.kmvpsolutions.commons.dto.ProductLiteDTO;
+import com.kmvpsolutions.order.client.ProductCache;
 import com.kmvpsolutions.order.dao.OrderItemRepository;
 import com.kmvpsolutions.order.dao.OrderRepository;
 import com.kmvpsolutions.order.domain.OrderItem;
 import lombok.extern.slf4j.Slf4j;
-import org.eclipse.microprofile.rest.client.inject.RestClient;
+import org.eclipse.microprofile.context.ManagedExecutor;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 import javax.transaction.Transactional;
+import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionStage;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -26,8 +31,10 @@ public class OrderItemService {
     OrderRepository orderRepository;
 
     @Inject
-    @RestClient
-    ProductRestClient productRestClient;
+    ProductCache productCache;
+
+    @Inject
+    ManagedExecutor managedExecutor;
 
     public OrderItemDTO findById(Long id) {
         log.debug("Request to get OrderItem : {}", id);
@@ -35,13 +42,43 @@ public class OrderItemService {
                 .map(OrderItemService::mapToDTO).orElse(null);
     }
 
-    public OrderItemDTO create(OrderItemDTO orderItemDTO) {
+    // the product lookup may be a remote call, so it runs before the
+    // transaction starts and no pooled connection is held while waiting on it
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
+    public CompletionStage<OrderItemDTO> create(OrderItemDTO orderItemDTO) {
         log.debug("Request to create an Order Item {}", orderItemDTO);
 
+        return this.productCache.findByIdAsync(orderItemDTO.getProductId())
+                .thenApplyAsync(product -> this.create(orderItemDTO, product.getPrice()), this.managedExecutor);
+    }
+
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
+    public CompletionStage<List<OrderItemDTO>> createAll(Long orderId, List<OrderItemDTO> orderItemDTOs) {
+        log.debug("Request to create {} Order Items for the order {}", orderItemDTOs.size(), orderId);
+
+        return this.productCache.findAllByIdsAsync(orderItemDTOs.stream()
+                .map(OrderItemDTO::getProductId)
+                .collect(Collectors.toSet()))
+                .thenApplyAsync(products -> this.createAll(orderId, orderItemDTOs, products), this.managedExecutor);
+    }
+
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
+    public void delete(Long id) {
+        log.debug("Request ot delete order item {}", id);
+
+        var productId = this.orderItemRepository.findById(id)
+                .map(OrderItem::getProductId)
+                .orElseThrow(() -> new IllegalStateException("The order item does not exist"));
+
+        var product = this.productCache.findById(productId);
+
+        this.delete(id, product.getPrice());
+    }
+
+    OrderItemDTO create(OrderItemDTO orderItemDTO, BigDecimal productPrice) {
         var order = this.orderRepository.findById(orderItemDTO.getOrderId()).orElseThrow(() ->
                 new IllegalStateException("The order does not exist"));
 
-
         var orderItem = this.orderItemRepository.save(
                 new OrderItem(
                         orderItemDTO.getQuantity(),
@@ -50,33 +87,50 @@ public class OrderItemService {
                 )
         );
 
-        var product = this.productRestClient.findById(orderItemDTO.getProductId());
-
-        order.setPrice(order.getPrice().add(product.getPrice()));
-
-        this.orderRepository.save(order);
+        // a single atomic update, concurrent items on the same order don't hit the @Version check
+        this.orderRepository.addToPrice(order.getId(), productPrice);
 
         return mapToDTO(orderItem);
     }
 
-    public void delete(Long id) {
-        log.debug("Request ot delete order item {}", id);
+    List<OrderItemDTO> createAll(Long orderId, List<OrderItemDTO> orderItemDTOs, Map<Long, ProductLiteDTO> products) {
+        var order = this.orderRepository.findById(orderId).orElseThrow(() ->
+                new IllegalStateException("The order does not exist"));
 
-        var orderItem = this.orderItemRepository.findById(id).orElseThrow(
-                () -> new IllegalStateException("The order item does not exist")
-        );
+        var totalPrice = BigDecimal.ZERO;
+        var orderItems = new ArrayList<OrderItem>();
+
+        for (OrderItemDTO orderItemDTO : orderItemDTOs) {
+            var product = products.get(orderItemDTO.getProductId());
+
+            if (product == null) {
+                throw new IllegalStateException("The product " + orderItemDTO.getProductId() + " does not exist");
+            }
 
-        var order = orderItem.getOrder();
+            totalPrice = totalPrice.add(product.getPrice());
+            orderItems.add(new OrderItem(orderItemDTO.getQuantity(), orderItemDTO.getProductId(), order));
+        }
 
-        var product = this.productRestClient.findById(orderItem.getProductId());
+        // inserted as JDBC batches, see quarkus.hibernate-orm.jdbc.statement-batch-size
+        var savedOrderItems = this.orderItemRepository.saveAll(orderItems);
 
-        order.setPrice(order.getPrice().subtract(product.getPrice()));
+        this.orderRepository.addToPrice(orderId, totalPrice);
+
+        return savedOrderItems.stream()
+                .map(OrderItemService::mapToDTO)
+                .collect(Collectors.toList());
+    }
+
+    void delete(Long id, BigDecimal productPrice) {
+        var orderItem = this.orderItemRepository.findById(id).orElseThrow(
+                () -> new IllegalStateException("The order item does not exist")
+        );
 
-        this.orderItemRepository.deleteById(id);
+        var orderId = orderItem.getOrder().getId();
 
-        order.getOrderItems().remove(orderItem);
+        this.orderItemRepository.delete(orderItem);
 
-        this.orderRepository.save(order);
+        this.orderRepository.addToPrice(orderId, productPrice.negate());
     }
 
     public List<OrderItemDTO> findByOrderId(Long orderId) {
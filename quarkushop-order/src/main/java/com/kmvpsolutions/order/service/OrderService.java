@@ -1,6 +1,7 @@
 package com.kmvpsolutions.order.service;
 
 import com.kmvpsolutions.commons.dto.OrderDTO;
+import com.kmvpsolutions.commons.utils.EntityVersion;
 import com.kmvpsolutions.commons.dto.OrderItemDTO;
 import com.kmvpsolutions.order.dao.CartRepository;
 import com.kmvpsolutions.order.dao.OrderRepository;
@@ -38,6 +39,17 @@ public class OrderService {
                 .collect(Collectors.toList());
     }
 
+    public EntityVersion findAllVersion() {
+        return EntityVersion.ofCollection(this.orderRepository.count(),
+                this.orderRepository.findMaxLastModifiedDate());
+    }
+
+    public EntityVersion findVersionById(Long id) {
+        return this.orderRepository.findLastModifiedDateById(id)
+                .map(lastModified -> EntityVersion.of(id, lastModified))
+                .orElse(null);
+    }
+
     public OrderDTO findById(Long id) {
         log.debug("Request to get Order : {}", id);
         return this.orderRepository.findById(id)
@@ -49,6 +61,17 @@ public class OrderService {
                 .stream().map(OrderService::mapToDTO).collect(Collectors.toList());
     }
 
+    public List<OrderDTO> findAllByPaymentIds(List<Long> paymentIds) {
+        log.debug("Request to get orders by payment ids {}", paymentIds);
+
+        if (paymentIds == null || paymentIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        return this.orderRepository.findAllByPaymentIdIn(paymentIds)
+                .stream().map(OrderService::mapToDTO).collect(Collectors.toList());
+    }
+
     public OrderDTO create(OrderDTO orderDTO) {
         log.debug("Request to create order {}", orderDTO);
 
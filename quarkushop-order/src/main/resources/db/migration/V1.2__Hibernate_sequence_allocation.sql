@@ -0,0 +1 @@
+alter sequence hibernate_sequence increment by 50;
@@ -12,7 +12,13 @@ import javax.sql.DataSource;
 import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static io.restassured.RestAssured.*;
@@ -32,6 +38,14 @@ public class OrderItemResourceTest {
             "insert into orders values (6, current_timestamp, current_timestamp, 'Cité Safia 2',NULL, 'Ksour', 'TN', 7160, NULL, 'CREATION', 0, 4, NULL)";
     private static final String DELETE_WRONG_ORDER_IN_DB =
             "delete from order_items where order_id = 6; delete from orders where id = 6;";
+    private static final String INSERT_CONCURRENT_ORDER_IN_DB =
+            "insert into orders values (7, current_timestamp, current_timestamp, 'Cité Safia 2',NULL, 'Ksour', 'TN', 7160, NULL, 'CREATION', 0, 4, NULL)";
+    private static final String DELETE_CONCURRENT_ORDER_IN_DB =
+            "delete from order_items where order_id = 7; delete from orders where id = 7;";
+    private static final String INSERT_BULK_ORDER_IN_DB =
+            "insert into orders values (8, current_timestamp, current_timestamp, 'Cité Safia 2',NULL, 'Ksour', 'TN', 7160, NULL, 'CREATION', 0, 4, NULL)";
+    private static final String DELETE_BULK_ORDER_IN_DB =
+            "delete from order_items where order_id = 8; delete from orders where id = 8;";
 
     @Inject
     DataSource datasource;
@@ -500,6 +514,86 @@ public class OrderItemResourceTest {
                 .statusCode(NO_CONTENT.getStatusCode());
     }
 
+    @Test
+    void testConcurrentCreateOnSameOrderWithAdminRole() throws Exception {
+        this.executeSQL(INSERT_CONCURRENT_ORDER_IN_DB);
+
+        var items = 20;
+        var orderItemRequestParams = new HashMap<>();
+        orderItemRequestParams.put("quantity", 1);
+        orderItemRequestParams.put("productId", 3);
+        orderItemRequestParams.put("orderId", 7);
+
+        ExecutorService executor = Executors.newFixedThreadPool(10);
+        var calls = new ArrayList<Callable<Integer>>();
+        for (int i = 0; i < items; i++) {
+            calls.add(() -> given()
+                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON)
+                    .header(HttpHeaders.AUTHORIZATION, "Bearer " + ADMIN_BEARER_TOKEN)
+                    .body(orderItemRequestParams)
+                    .post("/order-items")
+                    .then()
+                    .extract()
+                    .statusCode());
+        }
+
+        try {
+            for (Future<Integer> statusCode : executor.invokeAll(calls)) {
+                assertThat(statusCode.get()).isEqualTo(OK.getStatusCode());
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        var totalPrice = given().when()
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + ADMIN_BEARER_TOKEN)
+                .get("/orders/7")
+                .then()
+                .statusCode(OK.getStatusCode())
+                .extract()
+                .jsonPath()
+                .getDouble("totalPrice");
+
+        assertThat(totalPrice).isEqualTo(items * 1999.0);
+
+        this.executeSQL(DELETE_CONCURRENT_ORDER_IN_DB);
+    }
+
+    @Test
+    void testCreateAllWithAdminRole() {
+        this.executeSQL(INSERT_BULK_ORDER_IN_DB);
+
+        var orderItem = new HashMap<>();
+        orderItem.put("quantity", 1);
+        orderItem.put("productId", 3);
+
+        var orderItemIds = given()
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + ADMIN_BEARER_TOKEN)
+                .body(List.of(orderItem, orderItem, orderItem))
+                .post("/order-items/order/8")
+                .then()
+                .statusCode(OK.getStatusCode())
+                .extract()
+                .jsonPath()
+                .getList("id", Long.class);
+
+        assertThat(orderItemIds).hasSize(3).doesNotHaveDuplicates();
+
+        var totalPrice = given().when()
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + ADMIN_BEARER_TOKEN)
+                .get("/orders/8")
+                .then()
+                .statusCode(OK.getStatusCode())
+                .extract()
+                .jsonPath()
+                .getDouble("totalPrice");
+
+        assertThat(totalPrice).isEqualTo(3 * 1999.0);
+
+        this.executeSQL(DELETE_BULK_ORDER_IN_DB);
+    }
+
     private void executeSQL(String query) {
         try (var connection = this.datasource.getConnection()) {
             connection.createStatement().executeUpdate(query);
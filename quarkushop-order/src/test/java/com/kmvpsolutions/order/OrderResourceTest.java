@@ -138,6 +138,21 @@ public class OrderResourceTest {
                 .body(containsString("\"customer\":1"));
     }
 
+    @Test
+    void testFindAllByPaymentIdsWithAdminRole() {
+        var orderIds = given().when()
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + ADMIN_BEARER_TOKEN)
+                .queryParam("ids", 2, 4, 999)
+                .get("/orders/payments")
+                .then()
+                .statusCode(OK.getStatusCode())
+                .extract()
+                .jsonPath()
+                .getList("id", Long.class);
+
+        assertThat(orderIds).containsExactlyInAnyOrder(1L, 5L);
+    }
+
     @Test
     void testCreateOrderWithAdminRole() {
         var newCustomerId = COUNTER.incrementAndGet();
@@ -0,0 +1,13 @@
+package com.kmvpsolutions.product.dao;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategoryProductsCount {
+    private Long categoryId;
+    private Long products;
+}
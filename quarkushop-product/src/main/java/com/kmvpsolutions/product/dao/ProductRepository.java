@@ -1,21 +1,57 @@
 package com.kmvpsolutions.product.dao;
 
+import com.kmvpsolutions.commons.dto.ProductLiteDTO;
 import com.kmvpsolutions.product.domain.Product;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
 
     List<Product> findByCategoryId(Long categoryId);
 
+    @Query("select distinct p from Product p left join fetch p.reviews left join fetch p.category")
+    List<Product> findAllWithReviews();
+
+    @Query("select distinct p from Product p left join fetch p.reviews join fetch p.category c where c.id = ?1")
+    List<Product> findAllWithReviewsByCategoryId(Long categoryId);
+
+    @Query("select distinct p from Product p left join fetch p.reviews left join fetch p.category where p.id in ?1")
+    List<Product> findAllWithReviewsByIdIn(Collection<Long> ids);
+
+    @Query("select p from Product p left join fetch p.category where p.id in ?1")
+    List<Product> findAllByIdIn(Collection<Long> ids);
+
+    @Query("select new com.kmvpsolutions.commons.dto.ProductLiteDTO(p.id, p.name, p.price, str(p.status), p.category.id) " +
+            "from Product p where p.id in ?1")
+    List<ProductLiteDTO> findAllLiteByIdIn(Collection<Long> ids);
+
+    List<Product> findAllByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
     Long countAllByCategoryId(Long categoryId);
 
-    @Query("select p from Product p JOIN p.reviews r WHERE r.id = ?1")
-    Product findProductByReviewId(Long reviewId);
+    @Query("select new com.kmvpsolutions.product.dao.CategoryProductsCount(p.category.id, count(p)) " +
+            "from Product p group by p.category.id")
+    List<CategoryProductsCount> countAllGroupByCategoryId();
+
+    @Modifying
+    @Query("update Product p set p.reviewCount = p.reviewCount + ?2, p.ratingSum = p.ratingSum + ?3, " +
+            "p.lastModifiedDate = current_timestamp where p.id = ?1")
+    int addToReviewAggregates(Long productId, Long reviewCountDelta, Long ratingSumDelta);
+
+    @Query("select max(p.lastModifiedDate) from Product p")
+    Instant findMaxLastModifiedDate();
+
+    @Query("select p.lastModifiedDate from Product p where p.id = ?1")
+    Optional<Instant> findLastModifiedDateById(Long id);
 
     void deleteAllByCategoryId(Long id);
 
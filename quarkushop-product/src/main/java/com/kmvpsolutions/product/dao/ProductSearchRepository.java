@@ -0,0 +1,68 @@
+package com.kmvpsolutions.product.dao;
+
+import com.kmvpsolutions.product.domain.Product;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@ApplicationScoped
+public class ProductSearchRepository {
+
+    @Inject
+    EntityManager entityManager;
+
+    // native query, the search_vector column and its GIN index are postgres specific
+    @SuppressWarnings("unchecked")
+    public List<Product> search(String text, BigDecimal minPrice, BigDecimal maxPrice,
+                                String status, Long categoryId, int limit, int offset) {
+        StringBuilder sql = new StringBuilder("select p.* from \"products\" p");
+        Map<String, Object> parameters = new HashMap<>();
+
+        boolean fullText = text != null && !text.isBlank();
+
+        if (fullText) {
+            sql.append(", websearch_to_tsquery('english', :text) query where p.\"search_vector\" @@ query");
+            parameters.put("text", text);
+        } else {
+            sql.append(" where 1 = 1");
+        }
+
+        if (minPrice != null) {
+            sql.append(" and p.\"price\" >= :minPrice");
+            parameters.put("minPrice", minPrice);
+        }
+
+        if (maxPrice != null) {
+            sql.append(" and p.\"price\" <= :maxPrice");
+            parameters.put("maxPrice", maxPrice);
+        }
+
+        if (status != null) {
+            sql.append(" and p.\"status\" = :status");
+            parameters.put("status", status);
+        }
+
+        if (categoryId != null) {
+            sql.append(" and p.\"category_id\" = :categoryId");
+            parameters.put("categoryId", categoryId);
+        }
+
+        sql.append(fullText
+                ? " order by ts_rank(p.\"search_vector\", query) desc, p.\"id\""
+                : " order by p.\"id\"");
+
+        Query query = this.entityManager.createNativeQuery(sql.toString(), Product.class)
+                .setMaxResults(limit)
+                .setFirstResult(offset);
+
+        parameters.forEach(query::setParameter);
+
+        return query.getResultList();
+    }
+}
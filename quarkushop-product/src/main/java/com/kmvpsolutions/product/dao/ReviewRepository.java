@@ -1,6 +1,7 @@
 package com.kmvpsolutions.product.dao;
 
 import com.kmvpsolutions.product.domain.Review;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
@@ -10,6 +11,14 @@ import java.util.List;
 @Repository
 public interface ReviewRepository extends JpaRepository<Review, Long> {
 
-    @Query("select p.reviews From Product p where p.id = ?1")
+    @Query("select r From Review r where r.product.id = ?1")
     List<Review> findReviewsByProductId(Long id);
+
+    @Query("select r from Review r where r.product.id = ?1 order by r.createdDate desc, r.id desc")
+    List<Review> findReviewsPageByProductId(Long productId, Pageable pageable);
+
+    @Query("select r from Review r, Review c where r.product.id = ?1 and c.id = ?2 " +
+            "and (r.createdDate < c.createdDate or (r.createdDate = c.createdDate and r.id < c.id)) " +
+            "order by r.createdDate desc, r.id desc")
+    List<Review> findReviewsPageByProductIdBefore(Long productId, Long reviewId, Pageable pageable);
 }
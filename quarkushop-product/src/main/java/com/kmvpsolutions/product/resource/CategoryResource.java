@@ -2,13 +2,18 @@ package com.kmvpsolutions.product.resource;
 
 import com.kmvpsolutions.commons.dto.CategoryDTO;
 import com.kmvpsolutions.commons.dto.ProductDTO;
+import com.kmvpsolutions.commons.utils.ConditionalGet;
 import com.kmvpsolutions.product.service.CategoryService;
 import org.eclipse.microprofile.openapi.annotations.tags.Tag;
 
 import javax.annotation.security.RolesAllowed;
 import javax.inject.Inject;
 import javax.ws.rs.*;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Request;
+import javax.ws.rs.core.Response;
 import java.util.List;
 
 @Path("/categories")
@@ -20,14 +25,17 @@ public class CategoryResource {
     CategoryService categoryService;
 
     @GET
-    public List<CategoryDTO> findAll() {
-        return this.categoryService.findAll();
+    public Response findAll(@Context Request request, @Context HttpHeaders headers) {
+        return ConditionalGet.respond(request, headers,
+                this.categoryService.findAllVersion(), this.categoryService::findAll);
     }
 
     @GET
     @Path("/{id}")
-    public CategoryDTO findById(@PathParam("id") Long id) {
-        return this.categoryService.findById(id);
+    public Response findById(@PathParam("id") Long id,
+                             @Context Request request, @Context HttpHeaders headers) {
+        return ConditionalGet.respond(request, headers,
+                this.categoryService.findVersionById(id), () -> this.categoryService.findById(id));
     }
 
     @GET
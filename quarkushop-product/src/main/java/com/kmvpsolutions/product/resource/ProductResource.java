@@ -1,32 +1,124 @@
 package com.kmvpsolutions.product.resource;
 
+import com.kmvpsolutions.commons.config.CborProvider;
+import com.kmvpsolutions.commons.config.CompactJsonWriter;
 import com.kmvpsolutions.commons.dto.ProductDTO;
+import com.kmvpsolutions.commons.dto.ProductLiteDTO;
+import com.kmvpsolutions.commons.utils.ConditionalGet;
 import com.kmvpsolutions.product.service.ProductService;
 import org.eclipse.microprofile.openapi.annotations.tags.Tag;
 
 import javax.annotation.security.RolesAllowed;
 import javax.inject.Inject;
+import javax.json.bind.Jsonb;
 import javax.ws.rs.*;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Request;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 @Path("/products")
-@Produces(MediaType.APPLICATION_JSON)
+@Produces({MediaType.APPLICATION_JSON, CompactJsonWriter.MEDIA_TYPE, CborProvider.MEDIA_TYPE})
 @Tag(name = "Product", description = "All product methods")
 public class ProductResource {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     @Inject
     ProductService productService;
 
+    @Inject
+    Jsonb jsonb;
+
     @GET
-    public List<ProductDTO> findAll() {
-        return this.productService.findAll();
+    public Response findAll(@Context Request request, @Context HttpHeaders headers) {
+        return ConditionalGet.respond(request, headers,
+                this.productService.findAllVersion(), this.productService::findAll);
+    }
+
+    @GET
+    @Path("/page")
+    public List<ProductDTO> findPage(@QueryParam("after") Long after,
+                                     @QueryParam("limit") @DefaultValue("20") int limit) {
+        return this.productService.findPage(after, Math.max(1, Math.min(limit, MAX_PAGE_SIZE)));
+    }
+
+    @GET
+    @Path("/stream")
+    public StreamingOutput streamAll() {
+        // writes the catalogue one keyset page at a time instead of building the whole list
+        return output -> {
+            Writer writer = new OutputStreamWriter(output, StandardCharsets.UTF_8);
+            writer.write('[');
+
+            boolean first = true;
+            Long after = null;
+            List<ProductDTO> page;
+
+            do {
+                page = this.productService.findPage(after, MAX_PAGE_SIZE);
+
+                for (ProductDTO product : page) {
+                    if (!first) {
+                        writer.write(',');
+                    }
+                    writer.write(this.jsonb.toJson(product));
+                    first = false;
+                    after = product.getId();
+                }
+                writer.flush();
+            } while (page.size() == MAX_PAGE_SIZE);
+
+            writer.write(']');
+            writer.flush();
+        };
+    }
+
+    @GET
+    @Path("/batch")
+    public List<ProductDTO> findAllByIds(@QueryParam("ids") List<Long> ids,
+                                         @QueryParam("reviews") @DefaultValue("false") boolean withReviews) {
+        return this.productService.findAllByIds(ids, withReviews);
+    }
+
+    @GET
+    @Path("/search")
+    public List<ProductDTO> search(@QueryParam("q") String text,
+                                   @QueryParam("minPrice") BigDecimal minPrice,
+                                   @QueryParam("maxPrice") BigDecimal maxPrice,
+                                   @QueryParam("status") String status,
+                                   @QueryParam("categoryId") Long categoryId,
+                                   @QueryParam("limit") @DefaultValue("20") int limit,
+                                   @QueryParam("offset") @DefaultValue("0") int offset) {
+        return this.productService.search(text, minPrice, maxPrice, status, categoryId,
+                Math.max(1, Math.min(limit, MAX_PAGE_SIZE)), Math.max(0, offset));
+    }
+
+    @GET
+    @Path("/lite")
+    public List<ProductLiteDTO> findAllLiteByIds(@QueryParam("ids") List<Long> ids) {
+        return this.productService.findAllLiteByIds(ids);
     }
 
     @GET
     @Path("/{id}")
-    public ProductDTO findById(@PathParam("id") Long id) {
-        return this.productService.findById(id);
+    public Response findById(@PathParam("id") Long id,
+                             @Context Request request, @Context HttpHeaders headers) {
+        return ConditionalGet.respond(request, headers,
+                this.productService.findVersionById(id), () -> this.productService.findById(id));
+    }
+
+    @GET
+    @Path("/{id}/lite")
+    public ProductLiteDTO findLiteById(@PathParam("id") Long id) {
+        return this.productService.findLiteById(id);
     }
 
     @GET
@@ -1,6 +1,7 @@
 package com.kmvpsolutions.product.resource;
 
 import com.kmvpsolutions.commons.dto.ReviewDTO;
+import com.kmvpsolutions.commons.dto.ReviewSummaryDTO;
 import com.kmvpsolutions.product.service.ReviewService;
 import org.eclipse.microprofile.openapi.annotations.tags.Tag;
 
@@ -15,6 +16,8 @@ import java.util.List;
 @Tag(name = "Review", description = "All review methods")
 public class ReviewResource {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     @Inject
     ReviewService reviewService;
 
@@ -35,6 +38,20 @@ public class ReviewResource {
         return this.reviewService.findReviewsByProductId(id);
     }
 
+    @GET
+    @Path("/product/{id}/page")
+    public List<ReviewDTO> findPageByProductId(@PathParam("id") Long id,
+                                               @QueryParam("after") Long after,
+                                               @QueryParam("limit") @DefaultValue("20") int limit) {
+        return this.reviewService.findReviewsPageByProductId(id, after, Math.max(1, Math.min(limit, MAX_PAGE_SIZE)));
+    }
+
+    @GET
+    @Path("/product/{id}/summary")
+    public ReviewSummaryDTO findSummaryByProductId(@PathParam("id") Long id) {
+        return this.reviewService.findSummaryByProductId(id);
+    }
+
     @RolesAllowed("user")
     @POST
     @Path("/product/{id}")
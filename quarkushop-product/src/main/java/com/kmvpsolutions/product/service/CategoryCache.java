@@ -0,0 +1,178 @@
+package com.kmvpsolutions.product.service;
+
+import com.kmvpsolutions.commons.dto.CategoryDTO;
+import com.kmvpsolutions.commons.utils.EntityVersion;
+import com.kmvpsolutions.product.dao.CategoryProductsCount;
+import com.kmvpsolutions.product.dao.CategoryRepository;
+import com.kmvpsolutions.product.dao.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.microprofile.metrics.Counter;
+import org.eclipse.microprofile.metrics.Gauge;
+import org.eclipse.microprofile.metrics.Metadata;
+import org.eclipse.microprofile.metrics.MetricRegistry;
+import org.eclipse.microprofile.metrics.MetricType;
+
+import javax.annotation.PostConstruct;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
+import javax.transaction.TransactionSynchronizationRegistry;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+@Slf4j
+@ApplicationScoped
+public class CategoryCache {
+
+    @Inject
+    CategoryRepository categoryRepository;
+
+    @Inject
+    ProductRepository productRepository;
+
+    @Inject
+    TransactionSynchronizationRegistry transactionSynchronizationRegistry;
+
+    @Inject
+    MetricRegistry metricRegistry;
+
+    // immutable snapshot of every category by id, replaced as a whole and never modified in place
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>(Snapshot.empty());
+
+    private Counter hits;
+    private Counter misses;
+    private Counter invalidations;
+
+    @PostConstruct
+    void init() {
+        this.hits = this.counter("categoryCacheHits", "How many category lookups were served from the cache");
+        this.misses = this.counter("categoryCacheMisses", "How many category lookups had to reload the categories");
+        this.invalidations = this.counter("categoryCacheInvalidations", "How many times the categories were invalidated by a write");
+        this.metricRegistry.register(Metadata.builder()
+                        .withName("categoryCacheSize")
+                        .withDescription("How many categories are currently cached")
+                        .withType(MetricType.GAUGE)
+                        .build(),
+                (Gauge<Integer>) this::size);
+    }
+
+    // must be called within a transaction, the first call after an invalidation reloads the snapshot
+    public Map<Long, CategoryDTO> getAll() {
+        return this.current().categories;
+    }
+
+    public EntityVersion getVersion() {
+        return this.current().version;
+    }
+
+    public EntityVersion getVersion(Long id) {
+        return this.current().versions.get(id);
+    }
+
+    // drops the snapshot once the current transaction commits, or right away outside of one
+    public void invalidate() {
+        if (this.transactionSynchronizationRegistry.getTransactionKey() == null) {
+            this.doInvalidate();
+            return;
+        }
+
+        this.transactionSynchronizationRegistry.registerInterposedSynchronization(new Synchronization() {
+            @Override
+            public void beforeCompletion() {
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status == Status.STATUS_COMMITTED) {
+                    doInvalidate();
+                }
+            }
+        });
+    }
+
+    public int size() {
+        Map<Long, CategoryDTO> categories = this.snapshot.get().categories;
+        return categories != null ? categories.size() : 0;
+    }
+
+    private Snapshot current() {
+        Snapshot current = this.snapshot.get();
+
+        if (current.categories != null) {
+            this.hits.inc();
+            return current;
+        }
+
+        this.misses.inc();
+
+        Snapshot loaded = this.load();
+
+        // fails when a write was committed while loading, the result is then served once but not kept
+        this.snapshot.compareAndSet(current, loaded);
+
+        return loaded;
+    }
+
+    private void doInvalidate() {
+        log.debug("Invalidating the categories cache");
+
+        // a new instance every time, so a load started before this write can never publish its result
+        this.snapshot.set(Snapshot.empty());
+        this.invalidations.inc();
+    }
+
+    private Snapshot load() {
+        log.debug("Loading the categories cache");
+
+        Map<Long, Long> productsCountByCategoryId = this.productRepository.countAllGroupByCategoryId()
+                .stream()
+                .collect(Collectors.toMap(CategoryProductsCount::getCategoryId, CategoryProductsCount::getProducts));
+
+        Map<Long, CategoryDTO> categories = new LinkedHashMap<>();
+        Map<Long, EntityVersion> versions = new TreeMap<>();
+
+        this.categoryRepository.findAll().forEach(category -> {
+            Long productsCount = productsCountByCategoryId.getOrDefault(category.getId(), 0L);
+
+            categories.put(category.getId(), CategoryService.mapToDTO(category, productsCount));
+            // the products count changes without touching the category, so it is part of the version
+            versions.put(category.getId(), EntityVersion.ofDigest(
+                    category.getId(), category.getLastModifiedDate(), productsCount));
+        });
+
+        EntityVersion version = EntityVersion.ofDigest(versions.values().stream()
+                .map(EntityVersion::getTag)
+                .toArray());
+
+        return new Snapshot(Collections.unmodifiableMap(categories), versions, version);
+    }
+
+    private Counter counter(String name, String description) {
+        return this.metricRegistry.counter(Metadata.builder()
+                .withName(name)
+                .withDescription(description)
+                .withType(MetricType.COUNTER)
+                .build());
+    }
+
+    private static final class Snapshot {
+        private final Map<Long, CategoryDTO> categories;
+        private final Map<Long, EntityVersion> versions;
+        private final EntityVersion version;
+
+        private Snapshot(Map<Long, CategoryDTO> categories, Map<Long, EntityVersion> versions, EntityVersion version) {
+            this.categories = categories;
+            this.versions = versions;
+            this.version = version;
+        }
+
+        private static Snapshot empty() {
+            return new Snapshot(null, Collections.emptyMap(), null);
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.kmvpsolutions.product.service;
 
 import com.kmvpsolutions.commons.dto.CategoryDTO;
 import com.kmvpsolutions.commons.dto.ProductDTO;
+import com.kmvpsolutions.commons.utils.EntityVersion;
 import com.kmvpsolutions.product.dao.CategoryRepository;
 import com.kmvpsolutions.product.dao.ProductRepository;
 import com.kmvpsolutions.product.domain.Category;
@@ -10,6 +11,7 @@ import lombok.extern.slf4j.Slf4j;
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 import javax.transaction.Transactional;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -24,28 +26,35 @@ public class CategoryService {
     @Inject
     ProductRepository productRepository;
 
+    @Inject
+    CategoryCache categoryCache;
+
     public List<CategoryDTO> findAll() {
         log.debug("Request to get all Categories");
 
-        return this.categoryRepository.findAll()
-                .stream()
-                .map(category -> mapToDTO(category,
-                        productRepository.countAllByCategoryId(category.getId())))
-                .collect(Collectors.toList());
+        return new ArrayList<>(this.categoryCache.getAll().values());
+    }
+
+    // categories are served from memory, their versions are computed with each snapshot
+    public EntityVersion findAllVersion() {
+        return this.categoryCache.getVersion();
+    }
+
+    public EntityVersion findVersionById(Long id) {
+        return this.categoryCache.getVersion(id);
     }
 
     public CategoryDTO findById(Long id) {
         log.debug("Request to get Category: {}", id);
 
-        return this.categoryRepository.findById(id)
-                .map(category -> mapToDTO(category,
-                        productRepository.countAllByCategoryId(category.getId())))
-                .orElse(null);
+        return this.categoryCache.getAll().get(id);
     }
 
     public CategoryDTO create(CategoryDTO categoryDTO) {
         log.debug("Request to create Category: {}", categoryDTO);
 
+        this.categoryCache.invalidate();
+
         return mapToDTO(this.categoryRepository.save(
                 new Category(
                         categoryDTO.getName(),
@@ -67,10 +76,11 @@ public class CategoryService {
 
         log.debug("Deleting Category: {}", id);
         this.categoryRepository.deleteById(id);
+        this.categoryCache.invalidate();
     }
 
     public List<ProductDTO> findProductsByCategoryId(Long id) {
-        return this.productRepository.findAllByCategoryId(id)
+        return this.productRepository.findAllWithReviewsByCategoryId(id)
                 .stream()
                 .map(ProductService::mapToDTO)
                 .collect(Collectors.toList());
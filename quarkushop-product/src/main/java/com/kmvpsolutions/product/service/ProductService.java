@@ -1,15 +1,20 @@
 package com.kmvpsolutions.product.service;
 
 import com.kmvpsolutions.commons.dto.ProductDTO;
+import com.kmvpsolutions.commons.dto.ProductLiteDTO;
+import com.kmvpsolutions.commons.utils.EntityVersion;
 import com.kmvpsolutions.product.dao.CategoryRepository;
 import com.kmvpsolutions.product.dao.ProductRepository;
+import com.kmvpsolutions.product.dao.ProductSearchRepository;
 import com.kmvpsolutions.product.domain.Product;
 import com.kmvpsolutions.product.domain.enums.ProductStatus;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 import javax.transaction.Transactional;
+import java.math.BigDecimal;
 import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -25,15 +30,42 @@ public class ProductService {
     @Inject
     ProductRepository productRepository;
 
+    @Inject
+    ProductSearchRepository productSearchRepository;
+
+    @Inject
+    CategoryCache categoryCache;
+
     public List<ProductDTO> findAll() {
         log.debug("Request to get all products");
 
-        return this.productRepository.findAll()
+        return this.productRepository.findAllWithReviews()
+                .stream()
+                .map(ProductService::mapToDTO)
+                .collect(Collectors.toList());
+    }
+
+    public List<ProductDTO> findPage(Long after, int limit) {
+        log.debug("Request to get {} products after id {}", limit, after);
+
+        return this.productRepository.findAllByIdGreaterThanOrderByIdAsc(
+                after != null ? after : 0L, PageRequest.of(0, limit))
                 .stream()
                 .map(ProductService::mapToDTO)
                 .collect(Collectors.toList());
     }
 
+    public EntityVersion findAllVersion() {
+        return EntityVersion.ofCollection(this.productRepository.count(),
+                this.productRepository.findMaxLastModifiedDate());
+    }
+
+    public EntityVersion findVersionById(Long id) {
+        return this.productRepository.findLastModifiedDateById(id)
+                .map(lastModified -> EntityVersion.of(id, lastModified))
+                .orElse(null);
+    }
+
     public ProductDTO findById(Long id) {
         log.debug("Request to get Product: {}", id);
 
@@ -42,6 +74,56 @@ public class ProductService {
                 .orElse(null);
     }
 
+    public List<ProductDTO> findAllByIds(List<Long> ids, boolean withReviews) {
+        log.debug("Request to get Products: {}", ids);
+
+        if (ids == null || ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        if (withReviews) {
+            return this.productRepository.findAllWithReviewsByIdIn(ids)
+                    .stream()
+                    .map(ProductService::mapToDTO)
+                    .collect(Collectors.toList());
+        }
+
+        return this.productRepository.findAllByIdIn(ids)
+                .stream()
+                .map(ProductService::mapToDTOWithoutReviews)
+                .collect(Collectors.toList());
+    }
+
+    public List<ProductDTO> search(String text, BigDecimal minPrice, BigDecimal maxPrice,
+                                   String status, Long categoryId, int limit, int offset) {
+        log.debug("Request to search Products matching '{}', price {} - {}, status {}, categoryId {}",
+                text, minPrice, maxPrice, status, categoryId);
+
+        return this.productSearchRepository.search(text, minPrice, maxPrice, status, categoryId, limit, offset)
+                .stream()
+                .map(ProductService::mapToDTOWithoutReviews)
+                .collect(Collectors.toList());
+    }
+
+    public ProductLiteDTO findLiteById(Long id) {
+        log.debug("Request to get Product lite: {}", id);
+
+        return this.productRepository.findAllLiteByIdIn(List.of(id))
+                .stream()
+                .findFirst()
+                .orElse(null);
+    }
+
+    public List<ProductLiteDTO> findAllLiteByIds(List<Long> ids) {
+        log.debug("Request to get Products lite: {}", ids);
+
+        if (ids == null || ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        return this.productRepository.findAllLiteByIdIn(ids);
+    }
+
     public Long countAll() {
         log.debug("Request to count all products");
         return this.productRepository.count();
@@ -55,6 +137,8 @@ public class ProductService {
     public ProductDTO create(ProductDTO productDTO) {
         log.debug("Request to create Product {}", productDTO);
 
+        this.categoryCache.invalidate();
+
         return mapToDTO(this.productRepository.save(
                 new Product(
                         productDTO.getName(),
@@ -63,7 +147,9 @@ public class ProductService {
                         ProductStatus.valueOf(productDTO.getStatus()),
                         productDTO.getSalesCounter(),
                         Collections.emptySet(),
-                        this.categoryRepository.findById(productDTO.getCategoryId()).orElse(null)
+                        this.categoryRepository.findById(productDTO.getCategoryId()).orElse(null),
+                        0L,
+                        0L
                 )
         ));
     }
@@ -72,17 +158,33 @@ public class ProductService {
         log.debug("Request to delete Product: {}", id);
 
         this.productRepository.deleteById(id);
+        this.categoryCache.invalidate();
     }
 
     public List<ProductDTO> findByCategoryId(Long categoryId) {
         log.debug("Request to get Product by categoryId: {}", categoryId);
 
-        return this.productRepository.findAllByCategoryId(categoryId)
+        return this.productRepository.findAllWithReviewsByCategoryId(categoryId)
                 .stream()
                 .map(ProductService::mapToDTO)
                 .collect(Collectors.toList());
     }
 
+    public static ProductDTO mapToDTOWithoutReviews(Product product) {
+        return new ProductDTO(
+                product.getId(),
+                product.getName(),
+                product.getDescription(),
+                product.getPrice(),
+                product.getStatus().name(),
+                product.getSalesCounter(),
+                null,
+                product.getCategory().getId(),
+                product.getReviewCount(),
+                ReviewService.averageRating(product)
+        );
+    }
+
     public static ProductDTO mapToDTO(Product product) {
         return new ProductDTO(
                 product.getId(),
@@ -93,7 +195,9 @@ public class ProductService {
                 product.getSalesCounter(),
                 product.getReviews().stream().map(
                         ReviewService::mapToDTO).collect(Collectors.toSet()),
-                product.getCategory().getId()
+                product.getCategory().getId(),
+                product.getReviewCount(),
+                ReviewService.averageRating(product)
         );
     }
 }
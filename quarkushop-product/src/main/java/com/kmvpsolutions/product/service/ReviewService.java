@@ -1,11 +1,13 @@
 package com.kmvpsolutions.product.service;
 
 import com.kmvpsolutions.commons.dto.ReviewDTO;
+import com.kmvpsolutions.commons.dto.ReviewSummaryDTO;
 import com.kmvpsolutions.product.dao.ProductRepository;
 import com.kmvpsolutions.product.dao.ReviewRepository;
 import com.kmvpsolutions.product.domain.Product;
 import com.kmvpsolutions.product.domain.Review;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
@@ -49,23 +51,46 @@ public class ReviewService {
                 .collect(Collectors.toList());
     }
 
+    public List<ReviewDTO> findReviewsPageByProductId(Long productId, Long after, int limit) {
+        log.debug("Request to get {} reviews of the product id {} after the review id {}", limit, productId, after);
+
+        // newest first, the cursor is the id of the last review of the previous page
+        List<Review> reviews = after == null
+                ? this.reviewRepository.findReviewsPageByProductId(productId, PageRequest.of(0, limit))
+                : this.reviewRepository.findReviewsPageByProductIdBefore(productId, after, PageRequest.of(0, limit));
+
+        return reviews.stream()
+                .map(ReviewService::mapToDTO)
+                .collect(Collectors.toList());
+    }
+
+    public ReviewSummaryDTO findSummaryByProductId(Long productId) {
+        log.debug("Request to get the reviews summary of the product id {}", productId);
+
+        return this.productRepository.findById(productId)
+                .map(product -> new ReviewSummaryDTO(
+                        product.getId(),
+                        product.getReviewCount(),
+                        averageRating(product)))
+                .orElse(null);
+    }
+
     public ReviewDTO create(ReviewDTO reviewDTO, Long productId) {
         log.debug("Request to create Review: {} for the product id {}", reviewDTO, productId);
 
-        Product product = this.productRepository.findById(productId).orElseThrow(() ->
-                new IllegalStateException("Product with ID: " + productId + " was not found!"));
+        // also acts as the existence check, so the product and its reviews are never loaded
+        if (this.productRepository.addToReviewAggregates(productId, 1L, reviewDTO.getRating()) == 0) {
+            throw new IllegalStateException("Product with ID: " + productId + " was not found!");
+        }
 
-        Review review = this.reviewRepository.saveAndFlush(
+        Review review = this.reviewRepository.save(
                 new Review(
                         reviewDTO.getTitle(),
                         reviewDTO.getDescription(),
-                        reviewDTO.getRating()
+                        reviewDTO.getRating(),
+                        this.productRepository.getOne(productId)
                 ));
 
-        product.getReviews().add(review);
-
-        this.productRepository.saveAndFlush(product);
-
         return mapToDTO(review);
     }
 
@@ -75,12 +100,16 @@ public class ReviewService {
         Review review = this.reviewRepository.findById(id).orElseThrow(() ->
                 new IllegalStateException("The review with id " + id + " was not found!"));
 
-        Product productOfTheReview = this.productRepository.findProductByReviewId(id);
+        this.productRepository.addToReviewAggregates(review.getProduct().getId(), -1L, -review.getRating());
+        this.reviewRepository.delete(review);
+    }
 
-        productOfTheReview.getReviews().remove(review);
+    public static Double averageRating(Product product) {
+        if (product.getReviewCount() == null || product.getReviewCount() == 0) {
+            return null;
+        }
 
-        this.productRepository.saveAndFlush(productOfTheReview);
-        this.reviewRepository.delete(review);
+        return product.getRatingSum().doubleValue() / product.getReviewCount();
     }
 
     public static ReviewDTO mapToDTO(Review review) {
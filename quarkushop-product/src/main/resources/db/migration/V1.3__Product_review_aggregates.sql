@@ -0,0 +1,13 @@
+alter table "products"
+    add column "review_count" bigint not null default 0;
+alter table "products"
+    add column "rating_sum" bigint not null default 0;
+
+update "products" p
+set "review_count" = aggregates.review_count,
+    "rating_sum"   = aggregates.rating_sum
+from (select pr."product_id", count(*) as review_count, sum(r."rating") as rating_sum
+      from "products_reviews" pr
+               join "reviews" r on r."id" = pr."reviews_id"
+      group by pr."product_id") aggregates
+where p."id" = aggregates."product_id";
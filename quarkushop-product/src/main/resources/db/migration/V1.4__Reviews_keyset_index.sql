@@ -0,0 +1,2 @@
+-- products_reviews is already covered by its ("product_id", "reviews_id") primary key
+create index "reviews_created_date_idx" on "reviews" ("created_date", "id");
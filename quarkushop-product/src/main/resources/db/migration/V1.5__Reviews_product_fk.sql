@@ -0,0 +1,18 @@
+alter table "reviews"
+    add column "product_id" bigint;
+
+update "reviews" r
+set "product_id" = pr."product_id"
+from "products_reviews" pr
+where pr."reviews_id" = r."id";
+
+alter table "reviews"
+    alter column "product_id" set not null;
+alter table "reviews"
+    add constraint "review_fk" foreign key ("product_id") references "products" ("id");
+
+-- serves both the product foreign key and the keyset pagination of a product's reviews
+create index "reviews_product_id_created_date_idx" on "reviews" ("product_id", "created_date", "id");
+drop index "reviews_created_date_idx";
+
+drop table "products_reviews";
@@ -122,4 +122,45 @@ public class CategoryResourceTest {
         assertThat(response).containsEntry("description", "Description for the category 01");
         assertThat(response.get("products").equals(0L));
     }
+
+    @Test
+    void testFindByIdReflectsWrites() {
+        var requestParams = new HashMap<>();
+        requestParams.put("name", "Category test 02");
+        requestParams.put("description", "Description for the category 02");
+
+        // warms up the cache before the write
+        given().when()
+                .get("/categories")
+                .then()
+                .statusCode(OK.getStatusCode());
+
+        Long id = given().when()
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + ADMIN_BEARER_TOKEN)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON)
+                .body(requestParams)
+                .post("/categories")
+                .then()
+                .statusCode(OK.getStatusCode())
+                .extract()
+                .jsonPath()
+                .getLong("id");
+
+        given().when()
+                .get("/categories/" + id)
+                .then()
+                .statusCode(OK.getStatusCode())
+                .body(containsString("Category test 02"));
+
+        given().when()
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + ADMIN_BEARER_TOKEN)
+                .delete("/categories/" + id)
+                .then()
+                .statusCode(NO_CONTENT.getStatusCode());
+
+        given().when()
+                .get("/categories/" + id)
+                .then()
+                .statusCode(NO_CONTENT.getStatusCode());
+    }
 }
@@ -1,5 +1,10 @@
 package com.kmvpsolutions.product.resources;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.kmvpsolutions.commons.config.CborProvider;
+import com.kmvpsolutions.commons.config.CompactJsonWriter;
+import com.kmvpsolutions.commons.dto.ProductLiteDTO;
 import com.kmvpsolutions.commons.utils.KeyCloakRealmResource;
 import com.kmvpsolutions.commons.utils.TestContainerResource;
 import io.quarkus.test.common.QuarkusTestResource;
@@ -122,6 +127,233 @@ public class ProductResourceTest {
         assertThat(count).isGreaterThanOrEqualTo(2);
     }
 
+    @Test
+    void testFindPage() {
+        var firstPage = given()
+                .when()
+                .queryParam("limit", 2)
+                .get("/products/page")
+                .then()
+                .statusCode(OK.getStatusCode())
+                .extract()
+                .jsonPath()
+                .getList("id", Long.class);
+
+        assertThat(firstPage).hasSize(2).isSorted();
+
+        var secondPage = given()
+                .when()
+                .queryParam("limit", 2)
+                .queryParam("after", firstPage.get(1))
+                .get("/products/page")
+                .then()
+                .statusCode(OK.getStatusCode())
+                .extract()
+                .jsonPath()
+                .getList("id", Long.class);
+
+        assertThat(secondPage).isNotEmpty().isSorted().allMatch(id -> id > firstPage.get(1));
+    }
+
+    @Test
+    void testFindByIdNotModified() {
+        var etag = given()
+                .when()
+                .get("/products/3")
+                .then()
+                .statusCode(OK.getStatusCode())
+                .header(HttpHeaders.LAST_MODIFIED, notNullValue())
+                .extract()
+                .header(HttpHeaders.ETAG);
+
+        assertThat(etag).isNotBlank();
+
+        given()
+                .when()
+                .header(HttpHeaders.IF_NONE_MATCH, etag)
+                .get("/products/3")
+                .then()
+                .statusCode(NOT_MODIFIED.getStatusCode())
+                .body(is(emptyString()));
+
+        given()
+                .when()
+                .header(HttpHeaders.IF_NONE_MATCH, "W/\"outdated\"")
+                .get("/products/3")
+                .then()
+                .statusCode(OK.getStatusCode())
+                .body(containsString("MacBook Pro 13"));
+    }
+
+    @Test
+    void testFindAllNotModified() {
+        var etag = given()
+                .when()
+                .get("/products")
+                .then()
+                .statusCode(OK.getStatusCode())
+                .extract()
+                .header(HttpHeaders.ETAG);
+
+        given()
+                .when()
+                .header(HttpHeaders.IF_NONE_MATCH, etag)
+                .get("/products")
+                .then()
+                .statusCode(NOT_MODIFIED.getStatusCode());
+    }
+
+    @Test
+    void testFindByIdCompact() {
+        given()
+                .when()
+                .get("/products/4")
+                .then()
+                .statusCode(OK.getStatusCode())
+                .body(containsString("\"reviews\":[]"));
+
+        given()
+                .when()
+                .accept(CompactJsonWriter.MEDIA_TYPE)
+                .get("/products/4")
+                .then()
+                .statusCode(OK.getStatusCode())
+                .contentType(CompactJsonWriter.MEDIA_TYPE)
+                .body(containsString("\"name\":\"Google Pixel 4\""))
+                .body(not(containsString("reviews")));
+    }
+
+    @Test
+    void testFindAllCompressed() {
+        given()
+                .when()
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                .get("/products")
+                .then()
+                .statusCode(OK.getStatusCode())
+                .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                .body("size()", greaterThan(0));
+    }
+
+    @Test
+    void testFindLiteByIdCbor() throws Exception {
+        byte[] body = given()
+                .when()
+                .accept(CborProvider.MEDIA_TYPE)
+                .get("/products/3/lite")
+                .then()
+                .statusCode(OK.getStatusCode())
+                .contentType(CborProvider.MEDIA_TYPE)
+                .extract()
+                .asByteArray();
+
+        var product = new ObjectMapper(new CBORFactory()).readValue(body, ProductLiteDTO.class);
+
+        assertThat(product.getId()).isEqualTo(3L);
+        assertThat(product.getName()).isEqualTo("MacBook Pro 13");
+        assertThat(product.getPrice()).isEqualByComparingTo("1999.00");
+    }
+
+    @Test
+    void testSearch() {
+        given()
+                .when()
+                .queryParam("q", "powerful iphone")
+                .get("/products/search")
+                .then()
+                .statusCode(OK.getStatusCode())
+                .body("size()", is(2))
+                .body("name", hasItems("iPhone 11 Pro", "iPhone XS"));
+
+        given()
+                .when()
+                .queryParam("q", "apple")
+                .queryParam("categoryId", 1)
+                .queryParam("maxPrice", 800)
+                .get("/products/search")
+                .then()
+                .statusCode(OK.getStatusCode())
+                .body("size()", is(1))
+                .body("[0].name", is("iPhone XS"));
+
+        given()
+                .when()
+                .queryParam("q", "nonexistentproductname")
+                .get("/products/search")
+                .then()
+                .statusCode(OK.getStatusCode())
+                .body("size()", is(0));
+    }
+
+    @Test
+    void testStreamAll() {
+        var streamed = given()
+                .when()
+                .get("/products/stream")
+                .then()
+                .statusCode(OK.getStatusCode())
+                .extract()
+                .jsonPath()
+                .getList("id", Long.class);
+
+        var all = given()
+                .when()
+                .get("/products")
+                .then()
+                .statusCode(OK.getStatusCode())
+                .extract()
+                .jsonPath()
+                .getList("id", Long.class);
+
+        assertThat(streamed).isSorted().containsExactlyInAnyOrderElementsOf(all);
+    }
+
+    @Test
+    void testFindAllByIds() {
+        given()
+                .when()
+                .queryParam("ids", 1, 3, 9999)
+                .get("/products/batch")
+                .then()
+                .statusCode(OK.getStatusCode())
+                .body("size()", is(2))
+                .body("id", containsInAnyOrder(1, 3))
+                .body(not(containsString("reviews")));
+
+        given()
+                .when()
+                .queryParam("ids", 1)
+                .queryParam("reviews", true)
+                .get("/products/batch")
+                .then()
+                .statusCode(OK.getStatusCode())
+                .body("[0].reviews.size()", greaterThanOrEqualTo(2));
+    }
+
+    @Test
+    void testFindLiteById() {
+        given()
+                .when()
+                .get("/products/3/lite")
+                .then()
+                .statusCode(OK.getStatusCode())
+                .body("id", is(3))
+                .body("name", is("MacBook Pro 13"))
+                .body("status", is("AVAILABLE"))
+                .body("categoryId", is(2))
+                .body(containsString("1999.00"))
+                .body(not(containsString("reviews")))
+                .body(not(containsString("description")));
+
+        given()
+                .when()
+                .queryParam("ids", 1, 2)
+                .get("/products/lite")
+                .then()
+                .statusCode(OK.getStatusCode())
+                .body("id", containsInAnyOrder(1, 2));
+    }
+
     @Test
     void testFindAllWithAdminRole() {
         given()
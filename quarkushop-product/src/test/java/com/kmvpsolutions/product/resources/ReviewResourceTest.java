@@ -14,6 +14,7 @@ import java.util.HashMap;
 
 import static io.restassured.RestAssured.given;
 import static javax.ws.rs.core.Response.Status.*;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.is;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
@@ -47,6 +48,54 @@ public class ReviewResourceTest {
                 .body(containsString("description"));
     }
 
+    @Test
+    void testFindPageByProduct() {
+        var firstPage = given()
+                .when()
+                .queryParam("limit", 1)
+                .get("/reviews/product/1/page")
+                .then()
+                .statusCode(OK.getStatusCode())
+                .extract()
+                .jsonPath()
+                .getList("id", Long.class);
+
+        assertThat(firstPage).hasSize(1);
+
+        var secondPage = given()
+                .when()
+                .queryParam("limit", 1)
+                .queryParam("after", firstPage.get(0))
+                .get("/reviews/product/1/page")
+                .then()
+                .statusCode(OK.getStatusCode())
+                .extract()
+                .jsonPath()
+                .getList("id", Long.class);
+
+        assertThat(secondPage).hasSize(1).doesNotContainAnyElementsOf(firstPage);
+
+        given()
+                .when()
+                .queryParam("after", secondPage.get(0))
+                .get("/reviews/product/1/page")
+                .then()
+                .statusCode(OK.getStatusCode())
+                .body("size()", is(0));
+    }
+
+    @Test
+    void testFindSummaryByProduct() {
+        given()
+                .when()
+                .get("/reviews/product/1/summary")
+                .then()
+                .statusCode(OK.getStatusCode())
+                .body("productId", is(1))
+                .body("reviewCount", is(2))
+                .body("averageRating", is(4.5f));
+    }
+
     @Test
     void testFindById() {
         given()
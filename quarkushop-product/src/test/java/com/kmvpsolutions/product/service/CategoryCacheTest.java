@@ -0,0 +1,116 @@
+package com.kmvpsolutions.product.service;
+
+import com.kmvpsolutions.commons.dto.CategoryDTO;
+import com.kmvpsolutions.product.dao.CategoryRepository;
+import com.kmvpsolutions.product.dao.ProductRepository;
+import com.kmvpsolutions.product.domain.Category;
+import org.eclipse.microprofile.metrics.MetricRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.transaction.TransactionSynchronizationRegistry;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CategoryCacheTest {
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private CategoryCache categoryCache;
+
+    private String categoryName;
+
+    @BeforeEach
+    void init() {
+        this.categoryCache = new CategoryCache();
+
+        // outside of a transaction, an invalidation is applied as if its write had just been committed
+        this.categoryCache.transactionSynchronizationRegistry = stub(TransactionSynchronizationRegistry.class,
+                (proxy, method, args) -> defaultAnswer(method));
+        this.categoryCache.metricRegistry = stub(MetricRegistry.class, (proxy, method, args) -> defaultAnswer(method));
+        this.categoryCache.productRepository = stub(ProductRepository.class, (proxy, method, args) ->
+                method.getName().equals("countAllGroupByCategoryId") ? Collections.emptyList() : defaultAnswer(method));
+        this.categoryCache.categoryRepository = stub(CategoryRepository.class, (proxy, method, args) -> {
+            if (!method.getName().equals("findAll") || (args != null && args.length > 0)) {
+                return defaultAnswer(method);
+            }
+
+            List<Category> categories = List.of(category(this.categoryName));
+
+            // a write renaming the category commits while the first load is still running
+            if (this.loads.incrementAndGet() == 1) {
+                this.categoryName = "Renamed";
+                this.categoryCache.invalidate();
+            }
+
+            return categories;
+        });
+
+        this.categoryCache.init();
+    }
+
+    @Test
+    void testLoadRacingWithACommittedWriteIsNotKept() {
+        this.categoryName = "Original";
+
+        CategoryDTO first = this.categoryCache.getAll().get(1L);
+        CategoryDTO second = this.categoryCache.getAll().get(1L);
+        CategoryDTO third = this.categoryCache.getAll().get(1L);
+
+        assertThat(first.getName()).isEqualTo("Original");
+        assertThat(second.getName()).isEqualTo("Renamed");
+        assertThat(third.getName()).isEqualTo("Renamed");
+        assertThat(this.loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    void testInvalidationAfterLoadReloads() {
+        this.loads.set(1);
+        this.categoryName = "Original";
+
+        assertThat(this.categoryCache.getAll().get(1L).getName()).isEqualTo("Original");
+        assertThat(this.categoryCache.getAll().get(1L).getName()).isEqualTo("Original");
+
+        this.categoryName = "Renamed";
+        this.categoryCache.invalidate();
+
+        assertThat(this.categoryCache.getAll().get(1L).getName()).isEqualTo("Renamed");
+        assertThat(this.loads.get()).isEqualTo(3);
+    }
+
+    private static Category category(String name) {
+        Category category = new Category(name, "Description");
+        category.setId(1L);
+        return category;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T stub(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(CategoryCacheTest.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    // metrics and other collaborators are answered with inert values
+    private static Object defaultAnswer(Method method) {
+        Class<?> type = method.getReturnType();
+
+        if (type == long.class) {
+            return 0L;
+        }
+        if (type == int.class) {
+            return 0;
+        }
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type.isInterface()) {
+            return stub(type, (proxy, invoked, args) -> defaultAnswer(invoked));
+        }
+        return null;
+    }
+}
@@ -0,0 +1,54 @@
+package com.kmvpsolutions.product.service;
+
+import com.kmvpsolutions.commons.utils.KeyCloakRealmResource;
+import com.kmvpsolutions.commons.utils.TestContainerResource;
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.inject.Inject;
+import javax.persistence.EntityManagerFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@QuarkusTest
+@QuarkusTestResource(TestContainerResource.class)
+@QuarkusTestResource(KeyCloakRealmResource.class)
+public class ProductServiceTest {
+
+    @Inject
+    ProductService productService;
+
+    @Inject
+    EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void init() {
+        this.statistics = this.entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        this.statistics.setStatisticsEnabled(true);
+        this.statistics.clear();
+    }
+
+    @Test
+    void testFindAllLoadsReviewsWithoutExtraQueries() {
+        var products = this.productService.findAll();
+
+        assertThat(products).isNotEmpty();
+        assertThat(products).anyMatch(product -> !product.getReviews().isEmpty());
+        assertThat(this.statistics.getPrepareStatementCount()).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void testFindByCategoryIdLoadsReviewsWithoutExtraQueries() {
+        var products = this.productService.findByCategoryId(1L);
+
+        assertThat(products).isNotEmpty();
+        assertThat(products).allMatch(product -> product.getCategoryId().equals(1L));
+        assertThat(this.statistics.getPrepareStatementCount()).isLessThanOrEqualTo(2);
+    }
+}